@@ -8,8 +8,6 @@ import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -18,13 +16,15 @@ import org.bukkit.event.entity.EntityBreedEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,11 +37,21 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
     private static final Pattern percentagePattern = Pattern.compile("(.*)\\{percentage_(.+?)}(.*)"),
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
     private JavaPlugin plugin;
-    private final Map<List<String>, Integer> requiredEntities = new HashMap<>();
+    private final List<RequiredEntities> requiredEntities = new ArrayList<>();
     private final Map<EntityType, String> entityBossBar = new HashMap<>();
+    private final BitSet missionEntityTypes = new BitSet();
+    // Indexed by entity type ordinal: the requirement slots the type counts towards, and the first requirement of the type.
+    private final int[][] entitySlots = new int[ENTITY_TYPES.length][0];
+    private final RequiredEntities[] entityRequirements = new RequiredEntities[ENTITY_TYPES.length];
     private boolean resetAfterFinish;
 
+    // Breeds are folded per player and entity type, and flushed once on the next tick.
+    private final Map<SuperiorPlayer, Map<EntityType, int[]>> pendingBreeds = new HashMap<>();
+    private BukkitTask breedsFlushTask = null;
+
     @Override
     public void load(JavaPlugin plugin, ConfigurationSection section) throws MissionLoadException {
         this.plugin = plugin;
@@ -54,15 +64,33 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
             int requiredAmount = section.getInt("required-entities." + key + ".amount");
             String bossBar = section.getString("required-entities." + key + ".boss-bar", "?");
 
-            requiredEntities.put(entityTypes, requiredAmount);
+            RequiredEntities requirement = new RequiredEntities(requiredEntities.size(), entityTypes, requiredAmount);
+            requiredEntities.add(requirement);
+
+            if (requirement.all)
+                missionEntityTypes.set(0, ENTITY_TYPES.length);
+
             for (String type : entityTypes) {
                 try {
                     EntityType entityType = EntityType.valueOf(type);
                     entityBossBar.put(entityType, bossBar);
+                    missionEntityTypes.set(entityType.ordinal());
+
+                    if (entityRequirements[entityType.ordinal()] == null)
+                        entityRequirements[entityType.ordinal()] = requirement;
+
+                    int[] slots = entitySlots[entityType.ordinal()];
+                    if (!requirement.all && (slots.length == 0 || slots[slots.length - 1] != requirement.slot)) {
+                        slots = Arrays.copyOf(slots, slots.length + 1);
+                        slots[slots.length - 1] = requirement.slot;
+                        entitySlots[entityType.ordinal()] = slots;
+                    }
                 } catch (Exception ignored) {}
             }
         }
 
+        missionEntityTypes.clear(EntityType.ARMOR_STAND.ordinal());
+
         resetAfterFinish = section.getBoolean("reset-after-finish", false);
 
         Bukkit.getPluginManager().registerEvents(this, plugin);
@@ -78,9 +106,9 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
         int requiredEntities = 0;
         int bred = 0;
 
-        for (Map.Entry<List<String>, Integer> requiredEntity : this.requiredEntities.entrySet()) {
-            requiredEntities += requiredEntity.getValue();
-            bred += Math.min(breedTracker.getBred(requiredEntity.getKey()), requiredEntity.getValue());
+        for (RequiredEntities requiredEntity : this.requiredEntities) {
+            requiredEntities += requiredEntity.amount;
+            bred += Math.min(breedTracker.getBred(requiredEntity), requiredEntity.amount);
         }
 
         return (double) bred / requiredEntities;
@@ -95,19 +123,15 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
 
         int bred = 0;
 
-        for (Map.Entry<List<String>, Integer> requiredEntity : this.requiredEntities.entrySet())
-            bred += Math.min(breedTracker.getBred(requiredEntity.getKey()), requiredEntity.getValue());
+        for (RequiredEntities requiredEntity : this.requiredEntities)
+            bred += Math.min(breedTracker.getBred(requiredEntity), requiredEntity.amount);
 
         return bred;
     }
 
     public int getRequired(EntityType type) {
-        for (Map.Entry<List<String>, Integer> entry : requiredEntities.entrySet()) {
-            if (entry.getKey().contains(type.name()))
-                return entry.getValue();
-        }
-
-        return 0;
+        RequiredEntities requirement = entityRequirements[type.ordinal()];
+        return requirement == null ? 0 : requirement.amount;
     }
 
     public int getProgress(SuperiorPlayer superiorPlayer, EntityType type) {
@@ -115,7 +139,7 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
         if (breedTracker == null)
             return 0;
 
-        return breedTracker.getBred(type.name());
+        return breedTracker.getBred(type);
     }
 
     @Override
@@ -133,8 +157,14 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
     public void saveProgress(ConfigurationSection section) {
         for (Map.Entry<SuperiorPlayer, BreedTracker> entry : entrySet()) {
             String uuid = entry.getKey().getUniqueId().toString();
-            for (Map.Entry<String, Integer> brokenEntry : entry.getValue().breedTracker.entrySet()) {
-                section.set(uuid + "." + brokenEntry.getKey(), brokenEntry.getValue());
+            int[] bredEntities = entry.getValue().bredEntities;
+            for (int ordinal = 0; ordinal < bredEntities.length; ordinal++) {
+                if (bredEntities[ordinal] > 0)
+                    section.set(uuid + "." + ENTITY_TYPES[ordinal].name(), bredEntities[ordinal]);
+            }
+            if (entry.getValue().unknownEntities != null) {
+                for (Map.Entry<String, Integer> unknownEntity : entry.getValue().unknownEntities.entrySet())
+                    section.set(uuid + "." + unknownEntity.getKey(), unknownEntity.getValue());
             }
         }
     }
@@ -142,21 +172,26 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
     @Override
     public void loadProgress(ConfigurationSection section) {
         for (String uuid : section.getKeys(false)) {
-            BreedTracker breedTracker = new BreedTracker();
+            BreedTracker breedTracker = createTracker();
             UUID playerUUID = UUID.fromString(uuid);
             SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(playerUUID);
 
             insertData(superiorPlayer, breedTracker);
 
             for (String key : section.getConfigurationSection(uuid).getKeys(false)) {
-                breedTracker.breedTracker.put(key, section.getInt(uuid + "." + key));
+                try {
+                    EntityType entityType = EntityType.valueOf(key);
+                    breedTracker.track(entityType, section.getInt(uuid + "." + key), entitySlots[entityType.ordinal()]);
+                } catch (IllegalArgumentException ex) {
+                    breedTracker.trackUnknown(key, section.getInt(uuid + "." + key));
+                }
             }
         }
     }
 
     @Override
     public void formatItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
-        BreedTracker breedTracker = getOrCreate(superiorPlayer, s -> new BreedTracker());
+        BreedTracker breedTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if(breedTracker == null)
             return;
@@ -178,97 +213,157 @@ public final class BreedMissions extends Mission<BreedMissions.BreedTracker> imp
 
     @EventHandler(ignoreCancelled = true)
     public void onEntityBreed(EntityBreedEvent e) {
-        if (!isMissionEntity(e.getEntity()))
+        if (!missionEntityTypes.get(e.getEntityType().ordinal()))
             return;
 
         if (!(e.getBreeder() instanceof Player))
             return;
 
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer((Player) e.getBreeder());
-        if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
-            return;
 
-        BreedTracker breedTracker = getOrCreate(superiorPlayer, s -> new BreedTracker());
-        if (breedTracker == null)
-            return;
+        pendingBreeds.computeIfAbsent(superiorPlayer, s -> new EnumMap<>(EntityType.class))
+                .computeIfAbsent(e.getEntityType(), t -> new int[1])[0]++;
+
+        if (breedsFlushTask == null)
+            breedsFlushTask = Bukkit.getScheduler().runTask(plugin, this::flushBreeds);
+    }
+
+    private void flushBreeds() {
+        breedsFlushTask = null;
 
-        breedTracker.track(e.getEntity().getType().name(), 1);
-        if (entityBossBar.containsKey(e.getEntityType()))
-            sendBossBar(superiorPlayer, entityBossBar.get(e.getEntityType()), getProgress(superiorPlayer, e.getEntityType()), getRequired(e.getEntityType()), getProgress(superiorPlayer));
+        for (Map.Entry<SuperiorPlayer, Map<EntityType, int[]>> entry : pendingBreeds.entrySet()) {
+            SuperiorPlayer superiorPlayer = entry.getKey();
+            if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+                continue;
 
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
-            if (canComplete(superiorPlayer))
-                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
-        }), 2L);
+            BreedTracker breedTracker = getOrCreate(superiorPlayer, s -> createTracker());
+            if (breedTracker == null)
+                continue;
+
+            EntityType bossBarType = null;
+
+            for (Map.Entry<EntityType, int[]> breeds : entry.getValue().entrySet()) {
+                EntityType entityType = breeds.getKey();
+                breedTracker.track(entityType, breeds.getValue()[0], entitySlots[entityType.ordinal()]);
+                if (entityBossBar.containsKey(entityType))
+                    bossBarType = entityType;
+            }
+
+            if (bossBarType != null)
+                sendBossBar(superiorPlayer, entityBossBar.get(bossBarType), getProgress(superiorPlayer, bossBarType), getRequired(bossBarType), getProgress(superiorPlayer));
+
+            Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
+                if (canComplete(superiorPlayer))
+                    SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
+            }), 2L);
+        }
+
+        pendingBreeds.clear();
     }
 
-    private boolean isMissionEntity(Entity entity) {
-        if (entity == null || entity instanceof ArmorStand)
-            return false;
+    private BreedTracker createTracker() {
+        return new BreedTracker(requiredEntities.size());
+    }
 
-        for (List<String> requiredEntity : requiredEntities.keySet()) {
-            if (requiredEntity.contains("ALL") || requiredEntity.contains("all") || requiredEntity.contains(entity.getType().name()))
+    private boolean isRequiredEntity(String type) {
+        for (RequiredEntities requiredEntity : requiredEntities) {
+            if (requiredEntity.types.contains(type))
                 return true;
         }
 
         return false;
     }
 
+    private int getRequiredAmount(String type) {
+        for (RequiredEntities requiredEntity : requiredEntities) {
+            if (requiredEntity.types.contains(type))
+                return requiredEntity.amount;
+        }
+
+        return 0;
+    }
+
+    private static int getBred(BreedTracker breedTracker, String type) {
+        if (type.equals("ALL"))
+            return breedTracker.totalBred;
+
+        try {
+            return breedTracker.getBred(EntityType.valueOf(type));
+        } catch (IllegalArgumentException ex) {
+            return 0;
+        }
+    }
+
     private String parsePlaceholders(BreedTracker breedTracker, String line) {
         Matcher matcher = percentagePattern.matcher(line);
 
         if (matcher.matches()) {
             String requiredBlock = matcher.group(2).toUpperCase();
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredEntities.entrySet().stream().filter(e -> e.getKey().contains(requiredBlock)).findAny();
-            if (entry.isPresent()) {
+            if (isRequiredEntity(requiredBlock)) {
                 line = line.replace("{percentage_" + matcher.group(2) + "}",
-                        "" + (breedTracker.getBred(Collections.singletonList(requiredBlock)) * 100) / entry.get().getValue());
+                        "" + (getBred(breedTracker, requiredBlock) * 100) / getRequiredAmount(requiredBlock));
             }
         }
 
         if ((matcher = valuePattern.matcher(line)).matches()) {
             String requiredBlock = matcher.group(2).toUpperCase();
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredEntities.entrySet().stream().filter(e -> e.getKey().contains(requiredBlock)).findFirst();
-            if (entry.isPresent()) {
+            if (isRequiredEntity(requiredBlock)) {
                 line = line.replace("{value_" + matcher.group(2) + "}",
-                        "" + breedTracker.getBred(Collections.singletonList(requiredBlock)));
+                        "" + getBred(breedTracker, requiredBlock));
             }
         }
 
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
-    public static class BreedTracker {
+    private static final class RequiredEntities {
 
-        private final Map<String, Integer> breedTracker = new HashMap<>();
+        private final int slot;
+        private final List<String> types;
+        private final int amount;
+        private final boolean all;
 
-        void track(String entity, int amount) {
-            int newAmount = amount + breedTracker.getOrDefault(entity, 0);
-            breedTracker.put(entity, newAmount);
+        RequiredEntities(int slot, List<String> types, int amount) {
+            this.slot = slot;
+            this.types = types;
+            this.amount = amount;
+            this.all = types.contains("ALL") || types.contains("all");
         }
 
-        int getBred(String type) {
-            int amount = 0;
-            boolean all = type.equalsIgnoreCase("ALL");
+    }
 
-            for (String entity : breedTracker.keySet()) {
-                if (all || entity.equalsIgnoreCase(type))
-                    amount += breedTracker.get(entity);
-            }
+    public static class BreedTracker {
+
+        private final int[] bredEntities = new int[ENTITY_TYPES.length];
+        private final int[] groupBred;
+        private int totalBred = 0;
+        // Saved progress of entities that do not exist on this server, kept so the next save does not erase it.
+        private Map<String, Integer> unknownEntities = null;
 
-            return amount;
+        BreedTracker(int groupsAmount) {
+            this.groupBred = new int[groupsAmount];
         }
 
-        int getBred(List<String> entities) {
-            int amount = 0;
-            boolean all = entities.contains("ALL") || entities.contains("all");
+        void track(EntityType entityType, int amount, int[] slots) {
+            bredEntities[entityType.ordinal()] += amount;
+            totalBred += amount;
 
-            for (String entity : breedTracker.keySet()) {
-                if (all || entities.contains(entity))
-                    amount += breedTracker.get(entity);
-            }
+            for (int slot : slots)
+                groupBred[slot] += amount;
+        }
+
+        void trackUnknown(String entity, int amount) {
+            if (unknownEntities == null)
+                unknownEntities = new HashMap<>();
+            unknownEntities.put(entity, amount);
+        }
+
+        int getBred(EntityType entityType) {
+            return bredEntities[entityType.ordinal()];
+        }
 
-            return amount;
+        int getBred(RequiredEntities requiredEntities) {
+            return requiredEntities.all ? totalBred : groupBred[requiredEntities.slot];
         }
 
     }
@@ -2,13 +2,18 @@ package com.bgsoftware.superiorskyblock.missions;
 
 import com.bgsoftware.superiorskyblock.api.SuperiorSkyblock;
 import com.bgsoftware.superiorskyblock.api.SuperiorSkyblockAPI;
+import com.bgsoftware.superiorskyblock.api.events.IslandDisbandEvent;
+import com.bgsoftware.superiorskyblock.api.island.Island;
 import com.bgsoftware.superiorskyblock.api.missions.Mission;
 import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.BrewingStand;
@@ -18,26 +23,36 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.inventory.BrewEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.BrewerInventory;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.potion.Potion;
 import org.bukkit.potion.PotionType;
+import org.bukkit.scheduler.BukkitTask;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,13 +63,28 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
 
     private static final boolean isUsing18 = Bukkit.getServer().getClass().getPackage().getName().contains("1_8");
 
+    private static final byte ALL_SLOTS = 0b111;
+
     private static final Pattern percentagePattern = Pattern.compile("(.*)\\{percentage_(.+?)}(.*)"),
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
     private JavaPlugin plugin;
-    private final Map<List<PotionData>, Integer> requiredPotions = new HashMap<>();
-    private final Map<Location, boolean[]> trackedBrewItems = new HashMap<>();
+    private final List<RequiredPotions> requiredPotions = new ArrayList<>();
+    // The potions of this mission, by their index and by their signature.
+    private final List<MissionPotion> missionPotions = new ArrayList<>();
+    private final MissionPotion[] missionPotionsBySignature = new MissionPotion[PotionType.values().length << 4];
+    // Brewing stands with brewed potions that were not collected yet, by the chunk they are in.
+    // Each stand is stored by its packed position inside the chunk, with a mask of its brewed slots.
+    private final Map<ChunkPosition, Map<Integer, Byte>> trackedBrewingStands = new HashMap<>();
     private boolean resetAfterFinish;
+    @Nullable
+    private NamespacedKey brewingStandsKey;
+    // Loaded chunks that carry persisted brewing stands of this mission.
+    private final Set<ChunkPosition> persistedChunks = new HashSet<>();
+
+    // Brews of the current tick, checked together once their results are applied.
+    private final List<PendingBrew> pendingBrews = new ArrayList<>();
+    private BukkitTask brewsFlushTask = null;
 
     @Override
     public void load(JavaPlugin plugin, ConfigurationSection section) throws MissionLoadException {
@@ -64,7 +94,7 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
             throw new MissionLoadException("You must have the \"required-potions\" section in the config.");
 
         for (String key : section.getConfigurationSection("required-potions").getKeys(false)) {
-            List<PotionData> potionDataList = new ArrayList<>();
+            List<MissionPotion> potionsList = new ArrayList<>();
 
             for (String potionSectionName : section.getConfigurationSection("required-potions." + key + ".potions").getKeys(false)) {
                 ConfigurationSection potionSection = section.getConfigurationSection("required-potions." + key + ".potions." + potionSectionName);
@@ -86,13 +116,32 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
                 boolean upgraded = potionSection.getBoolean("upgraded", false);
                 boolean extended = potionSection.getBoolean("extended", false);
                 boolean splash = potionSection.getBoolean("splash", false);
+                boolean lingering = potionSection.getBoolean("lingering", false);
+
+                PotionData potionData = new PotionData(potionType, upgraded, extended, splash, lingering);
+                MissionPotion missionPotion = missionPotionsBySignature[potionData.getSignature()];
 
-                potionDataList.add(new PotionData(potionType, upgraded, extended, splash));
+                if (missionPotion == null) {
+                    missionPotion = new MissionPotion(missionPotions.size(), potionData);
+                    missionPotions.add(missionPotion);
+                    missionPotionsBySignature[potionData.getSignature()] = missionPotion;
+                }
+
+                if (!potionsList.contains(missionPotion))
+                    potionsList.add(missionPotion);
             }
 
-            if (!potionDataList.isEmpty()) {
+            if (!potionsList.isEmpty()) {
                 int requiredAmount = section.getInt("required-potions." + key + ".amount");
-                requiredPotions.put(potionDataList, requiredAmount);
+                RequiredPotions requirement = new RequiredPotions(requiredPotions.size(), requiredAmount);
+                requiredPotions.add(requirement);
+
+                for (MissionPotion missionPotion : potionsList) {
+                    if (missionPotion.requirement == null)
+                        missionPotion.requirement = requirement;
+                    missionPotion.slots = Arrays.copyOf(missionPotion.slots, missionPotion.slots.length + 1);
+                    missionPotion.slots[missionPotion.slots.length - 1] = requirement.slot;
+                }
             }
         }
 
@@ -102,6 +151,18 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
 
         resetAfterFinish = section.getBoolean("reset-after-finish", false);
 
+        if (section.getBoolean("persist-brewing-stands", false)) {
+            brewingStandsKey = new NamespacedKey(plugin, "brewing_stands_" +
+                    getName().toLowerCase().replaceAll("[^a-z0-9._-]", "_"));
+            // Chunks that are already loaded will not fire a ChunkLoadEvent.
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (World world : Bukkit.getWorlds()) {
+                    for (Chunk chunk : world.getLoadedChunks())
+                        loadBrewingStands(chunk);
+                }
+            });
+        }
+
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
@@ -115,9 +176,9 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
         int requiredPotions = 0;
         int kills = 0;
 
-        for (Map.Entry<List<PotionData>, Integer> requiredPotion : this.requiredPotions.entrySet()) {
-            requiredPotions += requiredPotion.getValue();
-            kills += Math.min(brewingTracker.getBrews(requiredPotion.getKey()), requiredPotion.getValue());
+        for (RequiredPotions requiredPotion : this.requiredPotions) {
+            requiredPotions += requiredPotion.amount;
+            kills += Math.min(brewingTracker.getBrews(requiredPotion), requiredPotion.amount);
         }
 
         return (double) kills / requiredPotions;
@@ -132,8 +193,8 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
 
         int kills = 0;
 
-        for (Map.Entry<List<PotionData>, Integer> requiredEntity : this.requiredPotions.entrySet())
-            kills += Math.min(brewingTracker.getBrews(requiredEntity.getKey()), requiredEntity.getValue());
+        for (RequiredPotions requiredPotion : this.requiredPotions)
+            kills += Math.min(brewingTracker.getBrews(requiredPotion), requiredPotion.amount);
 
         return kills;
     }
@@ -153,8 +214,30 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
     public void saveProgress(ConfigurationSection section) {
         for (Map.Entry<SuperiorPlayer, BrewingTracker> entry : entrySet()) {
             String uuid = entry.getKey().getUniqueId().toString();
-            for (Map.Entry<PotionData, Integer> brokenEntry : entry.getValue().brewingTracker.entrySet()) {
-                section.set(uuid + "." + brokenEntry.getKey(), brokenEntry.getValue());
+            int[] potionBrews = entry.getValue().potionBrews;
+            for (int i = 0; i < potionBrews.length; i++) {
+                if (potionBrews[i] > 0)
+                    section.set(uuid + "." + missionPotions.get(i).potionData, potionBrews[i]);
+            }
+            if (entry.getValue().unknownPotions != null) {
+                for (Map.Entry<String, Integer> unknownPotion : entry.getValue().unknownPotions.entrySet())
+                    section.set(uuid + "." + unknownPotion.getKey(), unknownPotion.getValue());
+            }
+        }
+
+        // Plugins are disabled before worlds are unloaded, so chunks that are still loaded when the
+        // server stops never fire a ChunkUnloadEvent. Chunk data can only be changed from the main thread.
+        // Only chunks with tracked stands, or with persisted stands that may need to be cleared, are written.
+        if (brewingStandsKey != null && Bukkit.isPrimaryThread()) {
+            Set<ChunkPosition> chunksToSave = new HashSet<>(persistedChunks);
+            chunksToSave.addAll(trackedBrewingStands.keySet());
+
+            for (ChunkPosition chunkPosition : chunksToSave) {
+                World world = Bukkit.getWorld(chunkPosition.worldName);
+                if (world != null && world.isChunkLoaded(chunkPosition.x, chunkPosition.z)) {
+                    saveBrewingStands(world.getChunkAt(chunkPosition.x, chunkPosition.z), chunkPosition,
+                            trackedBrewingStands.get(chunkPosition));
+                }
             }
         }
     }
@@ -162,21 +245,28 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
     @Override
     public void loadProgress(ConfigurationSection section) {
         for (String uuid : section.getKeys(false)) {
-            BrewingTracker brewingTracker = new BrewingTracker();
+            BrewingTracker brewingTracker = createTracker();
             UUID playerUUID = UUID.fromString(uuid);
             SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(playerUUID);
 
             insertData(superiorPlayer, brewingTracker);
 
             for (String key : section.getConfigurationSection(uuid).getKeys(false)) {
-                brewingTracker.brewingTracker.put(PotionData.fromString(key), section.getInt(uuid + "." + key));
+                MissionPotion missionPotion = getMissionPotion(key);
+
+                // Potions that are no longer part of the mission do not count for its progress,
+                // but are kept in case they are configured again.
+                if (missionPotion != null)
+                    brewingTracker.track(missionPotion, section.getInt(uuid + "." + key));
+                else
+                    brewingTracker.trackUnknown(key, section.getInt(uuid + "." + key));
             }
         }
     }
 
     @Override
     public void formatItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
-        BrewingTracker killsTracker = getOrCreate(superiorPlayer, s -> new BrewingTracker());
+        BrewingTracker killsTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if(killsTracker == null)
             return;
@@ -198,75 +288,146 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBrew(BrewEvent e) {
-        ItemStack[] originalResultItems = new ItemStack[3];
-        for (int i = 0; i < 3; ++i) {
-            ItemStack resultItem = e.getContents().getItem(i);
-            if (resultItem != null) {
-                originalResultItems[i] = resultItem.clone();
-            }
-        }
+        BrewerInventory inventory = e.getContents();
+        int[] originalSignatures = new int[3];
+
+        for (int i = 0; i < 3; ++i)
+            originalSignatures[i] = PotionData.getSignature(inventory.getItem(i));
+
+        // The results are only applied to the inventory after the event.
+        pendingBrews.add(new PendingBrew(e.getBlock(), inventory, originalSignatures));
+
+        if (brewsFlushTask == null)
+            brewsFlushTask = Bukkit.getScheduler().runTaskLater(plugin, this::flushBrews, 1L);
+    }
+
+    private void flushBrews() {
+        brewsFlushTask = null;
+
+        for (PendingBrew pendingBrew : pendingBrews) {
+            byte brewedSlots = 0;
 
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
             for (int i = 0; i < 3; ++i) {
-                ItemStack resultItem = e.getContents().getItem(i);
-                if (resultItem != null && !resultItem.isSimilar(originalResultItems[i]) && isMissionBrewing(resultItem)) {
-                    trackedBrewItems.computeIfAbsent(e.getBlock().getLocation(), block -> new boolean[3])[i] = true;
-                }
+                int signature = PotionData.getSignature(pendingBrew.inventory.getItem(i));
+                if (signature != pendingBrew.originalSignatures[i] && getMissionPotion(signature) != null)
+                    brewedSlots |= 1 << i;
             }
-        }, 1L);
+
+            if (brewedSlots != 0)
+                addBrewedSlots(pendingBrew.block, brewedSlots);
+        }
+
+        pendingBrews.clear();
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBrew(InventoryClickEvent e) {
-        if (!(e.getClickedInventory() instanceof BrewerInventory) || e.getRawSlot() > 2)
+        Inventory clickedInventory = e.getClickedInventory();
+
+        if (clickedInventory == null || clickedInventory.getType() != InventoryType.BREWING ||
+                e.getRawSlot() > 2 || trackedBrewingStands.isEmpty())
             return;
 
-        BrewerInventory inventory = (BrewerInventory) e.getClickedInventory();
+        BrewerInventory inventory = (BrewerInventory) clickedInventory;
+        // Getting the holder of the inventory creates a snapshot of the brewing stand.
+        Block block = isUsing18 ? inventory.getHolder().getBlock() : inventory.getLocation().getBlock();
 
-        handleBrewing((Player) e.getWhoClicked(), inventory, slot -> slot == e.getRawSlot());
+        handleBrewing((Player) e.getWhoClicked(), block, inventory, (byte) (1 << e.getRawSlot()));
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent e) {
-        BlockState blockState = e.getBlock().getState();
+        Block block = e.getBlock();
 
-        if (!(blockState instanceof BrewingStand))
+        if (block.getType() != Material.BREWING_STAND || getBrewedSlots(block) == 0)
             return;
 
-        BrewingStand brewingStand = (BrewingStand) blockState;
+        BlockState blockState = block.getState();
+
+        if (blockState instanceof BrewingStand)
+            handleBrewing(e.getPlayer(), block, ((BrewingStand) blockState).getInventory(), ALL_SLOTS);
+
+        removeBrewingStand(block);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent e) {
+        if (trackedBrewingStands.isEmpty())
+            return;
+
+        for (Block block : e.blockList())
+            removeBrewingStand(block);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent e) {
+        if (trackedBrewingStands.isEmpty())
+            return;
+
+        for (Block block : e.blockList())
+            removeBrewingStand(block);
+    }
+
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent e) {
+        loadBrewingStands(e.getChunk());
+    }
 
-        handleBrewing(e.getPlayer(), brewingStand.getInventory(), slot -> true);
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        ChunkPosition chunkPosition = ChunkPosition.fromChunk(e.getChunk());
+        saveBrewingStands(e.getChunk(), chunkPosition, trackedBrewingStands.remove(chunkPosition));
+        persistedChunks.remove(chunkPosition);
     }
 
-    private void handleBrewing(Player player, BrewerInventory inventory, Predicate<Integer> checkSlot) {
-        Block block = inventory.getHolder().getBlock();
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onIslandDisband(IslandDisbandEvent e) {
+        Island island = e.getIsland();
+
+        Iterator<Map.Entry<ChunkPosition, Map<Integer, Byte>>> chunksIterator = trackedBrewingStands.entrySet().iterator();
+        while (chunksIterator.hasNext()) {
+            Map.Entry<ChunkPosition, Map<Integer, Byte>> chunkEntry = chunksIterator.next();
+            ChunkPosition chunkPosition = chunkEntry.getKey();
+            World world = Bukkit.getWorld(chunkPosition.worldName);
 
-        boolean[] brewItems = this.trackedBrewItems.get(block.getLocation());
+            if (world == null)
+                continue;
 
-        if (brewItems == null) {
+            chunkEntry.getValue().keySet().removeIf(packedPosition -> island.isInside(new Location(world,
+                    (chunkPosition.x << 4) + (packedPosition & 0xF), packedPosition >> 8,
+                    (chunkPosition.z << 4) + ((packedPosition >> 4) & 0xF))));
+
+            if (chunkEntry.getValue().isEmpty())
+                chunksIterator.remove();
+        }
+    }
+
+    private void handleBrewing(Player player, Block block, BrewerInventory inventory, byte slotsMask) {
+        byte brewedSlots = (byte) (getBrewedSlots(block) & slotsMask);
+
+        if (brewedSlots == 0) {
             return;
         }
 
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(player);
 
-        BrewingTracker brewingTracker = getOrCreate(superiorPlayer, s -> new BrewingTracker());
+        BrewingTracker brewingTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if(brewingTracker == null)
             return;
 
-        for (int i = 0; i < 3; ++i) {
-            if (checkSlot.test(i) && brewItems[i]) {
-                brewItems[i] = false;
+        removeBrewedSlots(block, brewedSlots);
 
+        for (int i = 0; i < 3; ++i) {
+            if ((brewedSlots & (1 << i)) != 0) {
                 ItemStack brewItem = inventory.getItem(i);
+                MissionPotion missionPotion = getMissionPotion(PotionData.getSignature(brewItem));
 
-                brewingTracker.track(brewItem, brewItem.getAmount());
+                if (missionPotion != null)
+                    brewingTracker.track(missionPotion, brewItem.getAmount());
             }
         }
 
-        if (!brewItems[0] && !brewItems[1] && !brewItems[2])
-            this.trackedBrewItems.remove(block.getLocation());
-
         if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
@@ -276,53 +437,121 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
         }), 2L);
     }
 
-    private boolean isMissionBrewing(ItemStack itemStack) {
-        PotionData potionData = PotionData.fromItemStack(itemStack);
+    private byte getBrewedSlots(Block block) {
+        if (trackedBrewingStands.isEmpty())
+            return 0;
+
+        Map<Integer, Byte> brewingStands = trackedBrewingStands.get(ChunkPosition.fromBlock(block));
+        Byte brewedSlots = brewingStands == null ? null : brewingStands.get(packPosition(block));
+        return brewedSlots == null ? 0 : brewedSlots;
+    }
+
+    private void addBrewedSlots(Block block, byte slotsMask) {
+        trackedBrewingStands.computeIfAbsent(ChunkPosition.fromBlock(block), chunk -> new HashMap<>())
+                .merge(packPosition(block), slotsMask, (oldMask, newMask) -> (byte) (oldMask | newMask));
+    }
+
+    private void removeBrewedSlots(Block block, byte slotsMask) {
+        ChunkPosition chunkPosition = ChunkPosition.fromBlock(block);
+        Map<Integer, Byte> brewingStands = trackedBrewingStands.get(chunkPosition);
+
+        if (brewingStands == null)
+            return;
+
+        brewingStands.computeIfPresent(packPosition(block), (position, brewedSlots) -> {
+            byte newSlots = (byte) (brewedSlots & ~slotsMask);
+            return newSlots == 0 ? null : newSlots;
+        });
+
+        if (brewingStands.isEmpty())
+            trackedBrewingStands.remove(chunkPosition);
+    }
+
+    private void removeBrewingStand(Block block) {
+        removeBrewedSlots(block, ALL_SLOTS);
+    }
+
+    private void loadBrewingStands(Chunk chunk) {
+        if (brewingStandsKey == null)
+            return;
+
+        int[] data = chunk.getPersistentDataContainer().get(brewingStandsKey, PersistentDataType.INTEGER_ARRAY);
+
+        if (data == null)
+            return;
+
+        ChunkPosition chunkPosition = ChunkPosition.fromChunk(chunk);
+        persistedChunks.add(chunkPosition);
+
+        if (data.length < 2)
+            return;
+
+        Map<Integer, Byte> brewingStands = trackedBrewingStands.computeIfAbsent(chunkPosition, c -> new HashMap<>());
+        for (int i = 0; i + 1 < data.length; i += 2)
+            brewingStands.put(data[i], (byte) data[i + 1]);
+    }
+
+    private void saveBrewingStands(Chunk chunk, ChunkPosition chunkPosition, @Nullable Map<Integer, Byte> brewingStands) {
+        if (brewingStandsKey == null)
+            return;
+
+        PersistentDataContainer dataContainer = chunk.getPersistentDataContainer();
+
+        if (brewingStands == null) {
+            if (persistedChunks.remove(chunkPosition))
+                dataContainer.remove(brewingStandsKey);
+        } else {
+            int[] data = new int[brewingStands.size() * 2];
+            int index = 0;
+            for (Map.Entry<Integer, Byte> brewingStand : brewingStands.entrySet()) {
+                data[index++] = brewingStand.getKey();
+                data[index++] = brewingStand.getValue();
+            }
+            dataContainer.set(brewingStandsKey, PersistentDataType.INTEGER_ARRAY, data);
+            persistedChunks.add(chunkPosition);
+        }
+    }
+
+    private static int packPosition(Block block) {
+        return (block.getY() << 8) | ((block.getZ() & 0xF) << 4) | (block.getX() & 0xF);
+    }
 
-        if (potionData == null)
-            return false;
+    @Nullable
+    private MissionPotion getMissionPotion(int signature) {
+        return signature < 0 || signature >= missionPotionsBySignature.length ? null : missionPotionsBySignature[signature];
+    }
 
-        for (List<PotionData> requiredPotion : requiredPotions.keySet()) {
-            if (requiredPotion.contains(potionData))
-                return true;
+    @Nullable
+    private MissionPotion getMissionPotion(String potion) {
+        try {
+            return getMissionPotion(PotionData.fromString(potion).getSignature());
+        } catch (IllegalArgumentException ex) {
+            return null;
         }
+    }
 
-        return false;
+    private BrewingTracker createTracker() {
+        return new BrewingTracker(missionPotions.size(), requiredPotions.size());
     }
 
     private String parsePlaceholders(BrewingTracker killsTracker, String line) {
         Matcher matcher = percentagePattern.matcher(line);
 
         if (matcher.matches()) {
-            String requiredPotionType = matcher.group(2).toUpperCase();
-
-            try {
-                PotionData potionData = PotionData.fromString(requiredPotionType);
-
-                Optional<Map.Entry<List<PotionData>, Integer>> entry = requiredPotions.entrySet().stream()
-                        .filter(e -> e.getKey().contains(potionData)).findAny();
+            MissionPotion missionPotion = getMissionPotion(matcher.group(2).toUpperCase());
 
-                if (entry.isPresent()) {
-                    line = line.replace("{percentage_" + matcher.group(2) + "}",
-                            "" + (killsTracker.getBrews(Collections.singletonList(potionData)) * 100) / entry.get().getValue());
-                }
-            } catch (IllegalArgumentException ignored) {
+            if (missionPotion != null) {
+                line = line.replace("{percentage_" + matcher.group(2) + "}",
+                        "" + (killsTracker.getBrews(missionPotion) * 100) / missionPotion.requirement.amount);
             }
         }
 
         if ((matcher = valuePattern.matcher(line)).matches()) {
-            String requiredPotionType = matcher.group(2).toUpperCase();
+            MissionPotion missionPotion = getMissionPotion(matcher.group(2).toUpperCase());
 
-            try {
-                PotionData potionData = PotionData.fromString(requiredPotionType);
-
-                Optional<Map.Entry<List<PotionData>, Integer>> entry = requiredPotions.entrySet().stream()
-                        .filter(e -> e.getKey().contains(potionData)).findFirst();
-                if (entry.isPresent()) {
-                    line = line.replace("{value_" + matcher.group(2) + "}",
-                            "" + killsTracker.getBrews(Collections.singletonList(potionData)));
-                }
-            } catch (IllegalArgumentException ignored) {
+            if (missionPotion != null) {
+                line = line.replace("{value_" + matcher.group(2) + "}",
+                        "" + killsTracker.getBrews(missionPotion));
             }
         }
 
@@ -331,23 +560,112 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
 
     public static class BrewingTracker {
 
-        private final Map<PotionData, Integer> brewingTracker = new HashMap<>();
+        private final int[] potionBrews;
+        private final int[] groupBrews;
+        // Saved progress of potions that are not part of the mission, kept so the next save does not erase it.
+        @Nullable
+        private Map<String, Integer> unknownPotions = null;
 
-        void track(ItemStack brewing, int amount) {
-            PotionData potionData = PotionData.fromItemStack(brewing);
-            int newAmount = amount + brewingTracker.getOrDefault(potionData, 0);
-            brewingTracker.put(potionData, newAmount);
+        BrewingTracker(int potionsAmount, int groupsAmount) {
+            this.potionBrews = new int[potionsAmount];
+            this.groupBrews = new int[groupsAmount];
         }
 
-        int getBrews(List<BrewingMissions.PotionData> potions) {
-            int amount = 0;
+        void track(MissionPotion missionPotion, int amount) {
+            potionBrews[missionPotion.index] += amount;
 
-            for (Map.Entry<PotionData, Integer> potionData : brewingTracker.entrySet()) {
-                if (potions.contains(potionData.getKey()))
-                    amount += potionData.getValue();
-            }
+            for (int slot : missionPotion.slots)
+                groupBrews[slot] += amount;
+        }
+
+        void trackUnknown(String potion, int amount) {
+            if (unknownPotions == null)
+                unknownPotions = new HashMap<>();
+            unknownPotions.put(potion, amount);
+        }
+
+        int getBrews(RequiredPotions requiredPotions) {
+            return groupBrews[requiredPotions.slot];
+        }
+
+        int getBrews(MissionPotion missionPotion) {
+            return potionBrews[missionPotion.index];
+        }
+
+    }
+
+    private static final class RequiredPotions {
+
+        private final int slot;
+        private final int amount;
+
+        RequiredPotions(int slot, int amount) {
+            this.slot = slot;
+            this.amount = amount;
+        }
+
+    }
+
+    private static final class MissionPotion {
+
+        private final int index;
+        private final PotionData potionData;
+        private int[] slots = new int[0];
+        // The first requirement that contains the potion, used for placeholders.
+        private RequiredPotions requirement = null;
+
+        MissionPotion(int index, PotionData potionData) {
+            this.index = index;
+            this.potionData = potionData;
+        }
+
+    }
+
+    private static final class ChunkPosition {
+
+        private final String worldName;
+        private final int x;
+        private final int z;
+
+        static ChunkPosition fromBlock(Block block) {
+            return new ChunkPosition(block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4);
+        }
+
+        static ChunkPosition fromChunk(Chunk chunk) {
+            return new ChunkPosition(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+        }
+
+        ChunkPosition(String worldName, int x, int z) {
+            this.worldName = worldName;
+            this.x = x;
+            this.z = z;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ChunkPosition that = (ChunkPosition) o;
+            return x == that.x && z == that.z && worldName.equals(that.worldName);
+        }
 
-            return amount;
+        @Override
+        public int hashCode() {
+            return Objects.hash(worldName, x, z);
+        }
+
+    }
+
+    private static final class PendingBrew {
+
+        private final Block block;
+        private final BrewerInventory inventory;
+        private final int[] originalSignatures;
+
+        PendingBrew(Block block, BrewerInventory inventory, int[] originalSignatures) {
+            this.block = block;
+            this.inventory = inventory;
+            this.originalSignatures = originalSignatures;
         }
 
     }
@@ -358,17 +676,65 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
         private final boolean upgraded;
         private final boolean extended;
         private final boolean splash;
+        private final boolean lingering;
 
-        public PotionData(PotionType potionType, boolean upgraded, boolean extended, boolean splash) {
+        public PotionData(PotionType potionType, boolean upgraded, boolean extended, boolean splash, boolean lingering) {
             this.potionType = potionType;
             this.upgraded = upgraded;
             this.extended = extended;
             this.splash = splash;
+            this.lingering = lingering;
         }
 
-        @Nullable
-        public static PotionData fromItemStack(ItemStack itemStack) {
-            return isUsing18 ? fromItemStack18(itemStack) : fromItemStack19(itemStack);
+        int getSignature() {
+            return getSignature(potionType, upgraded, extended, splash, lingering);
+        }
+
+        /**
+         * Get a compact signature of the potion, or -1 if the item is not a potion.
+         * Equal potions, by the terms of this mission, have equal signatures.
+         */
+        static int getSignature(@Nullable ItemStack itemStack) {
+            if (itemStack == null)
+                return -1;
+
+            return isUsing18 ? getSignature18(itemStack) : getSignature19(itemStack);
+        }
+
+        private static int getSignature19(ItemStack itemStack) {
+            Material type = itemStack.getType();
+
+            if (type != Material.POTION && type != Material.SPLASH_POTION && type != Material.LINGERING_POTION)
+                return -1;
+
+            ItemMeta itemMeta = itemStack.getItemMeta();
+
+            if (!(itemMeta instanceof PotionMeta))
+                return -1;
+
+            org.bukkit.potion.PotionData potionData = ((PotionMeta) itemMeta).getBasePotionData();
+
+            return getSignature(potionData.getType(), potionData.isUpgraded(), potionData.isExtended(),
+                    type == Material.SPLASH_POTION, type == Material.LINGERING_POTION);
+        }
+
+        @SuppressWarnings("deprecation")
+        private static int getSignature18(ItemStack itemStack) {
+            if (itemStack.getType() != Material.POTION)
+                return -1;
+
+            try {
+                Potion potion = Potion.fromItemStack(itemStack);
+                return getSignature(potion.getType(), potion.getLevel() > 1, potion.hasExtendedDuration(), potion.isSplash(), false);
+            } catch (Exception ex) {
+                return -1;
+            }
+        }
+
+        private static int getSignature(PotionType potionType, boolean upgraded, boolean extended,
+                                        boolean splash, boolean lingering) {
+            return potionType.ordinal() << 4 | (upgraded ? 1 : 0) | (extended ? 2 : 0) |
+                    (splash ? 4 : 0) | (lingering ? 8 : 0);
         }
 
         public static PotionData fromString(String line) {
@@ -385,33 +751,14 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
             boolean upgraded = sections.length >= 2 && Boolean.parseBoolean(sections[1]);
             boolean extended = sections.length >= 3 && Boolean.parseBoolean(sections[2]);
             boolean splash = sections.length >= 4 && Boolean.parseBoolean(sections[3]);
+            boolean lingering = sections.length >= 5 && Boolean.parseBoolean(sections[4]);
 
-            return new PotionData(potionType, upgraded, extended, splash);
-        }
-
-        private static PotionData fromItemStack19(ItemStack itemStack) {
-            ItemMeta itemMeta = itemStack.getItemMeta();
-
-            if (!(itemMeta instanceof PotionMeta)) {
-                return null;
-            }
-
-            PotionMeta potionMeta = (PotionMeta) itemMeta;
-            org.bukkit.potion.PotionData potionData = potionMeta.getBasePotionData();
-
-            return new PotionData(potionData.getType(), potionData.isUpgraded(), potionData.isExtended(),
-                    itemStack.getType() == Material.SPLASH_POTION);
-        }
-
-        @SuppressWarnings("deprecation")
-        private static PotionData fromItemStack18(ItemStack itemStack) {
-            Potion potion = Potion.fromItemStack(itemStack);
-            return new PotionData(potion.getType(), potion.getLevel() > 1, potion.hasExtendedDuration(), potion.isSplash());
+            return new PotionData(potionType, upgraded, extended, splash, lingering);
         }
 
         @Override
         public String toString() {
-            return potionType.name() + ";" + upgraded + ";" + extended + ";" + splash;
+            return potionType.name() + ";" + upgraded + ";" + extended + ";" + splash + (lingering ? ";true" : "");
         }
 
         @Override
@@ -419,12 +766,13 @@ public final class BrewingMissions extends Mission<BrewingMissions.BrewingTracke
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             PotionData that = (PotionData) o;
-            return upgraded == that.upgraded && extended == that.extended && splash == that.splash && potionType == that.potionType;
+            return upgraded == that.upgraded && extended == that.extended && splash == that.splash &&
+                    lingering == that.lingering && potionType == that.potionType;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(potionType, upgraded, extended, splash);
+            return Objects.hash(potionType, upgraded, extended, splash, lingering);
         }
 
     }
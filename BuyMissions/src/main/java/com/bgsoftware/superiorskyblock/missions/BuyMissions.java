@@ -5,15 +5,12 @@ import com.bgsoftware.superiorskyblock.api.SuperiorSkyblockAPI;
 import com.bgsoftware.superiorskyblock.api.missions.Mission;
 import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
-import net.brcdev.shopgui.event.ShopPostTransactionEvent;
-import net.brcdev.shopgui.shop.ShopManager;
-import net.brcdev.shopgui.shop.ShopTransactionResult;
+import com.bgsoftware.superiorskyblock.missions.shop.ShopTransactionDispatcher;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -23,7 +20,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @SuppressWarnings("unused")
-public final class BuyMissions extends Mission<BuyMissions.BuyTracker> implements Listener {
+public final class BuyMissions extends Mission<BuyMissions.BuyTracker> {
 
     private static final SuperiorSkyblock superiorSkyblock = SuperiorSkyblockAPI.getSuperiorSkyblock();
 
@@ -59,7 +56,7 @@ public final class BuyMissions extends Mission<BuyMissions.BuyTracker> implement
             itemsBossBar.put(material, bossBar);
         }
 
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        ShopTransactionDispatcher.registerBuyHandler(plugin, this, itemsBossBar.keySet(), this::onBuyItem);
 
         setClearMethod(buyTracker -> buyTracker.boughtItems.clear());
     }
@@ -178,21 +175,12 @@ public final class BuyMissions extends Mission<BuyMissions.BuyTracker> implement
         itemStack.setItemMeta(itemMeta);
     }
 
-    @EventHandler
-    public void onBuyItem(ShopPostTransactionEvent event) {
-        if (event.getResult().getResult() != ShopTransactionResult.ShopTransactionResultType.SUCCESS)
-            return;
-        if (event.getResult().getShopAction() != ShopManager.ShopAction.BUY)
-            return;
-
-        ItemStack resultItem = event.getResult().getShopItem().getItem();
-        resultItem.setAmount(event.getResult().getAmount());
-
-        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(event.getResult().getPlayer());
+    private void onBuyItem(Player player, ItemStack boughtItem) {
+        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(player);
         if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
-        trackItem(superiorPlayer, resultItem);
+        trackItem(superiorPlayer, boughtItem);
     }
 
     private void trackItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
@@ -13,18 +13,19 @@ import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.inventory.CraftItemEvent;
+import org.bukkit.event.inventory.FurnaceExtractEvent;
+import org.bukkit.inventory.CraftingInventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,8 +38,9 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
     private static final Pattern percentagePattern = Pattern.compile("(.*)\\{percentage_(.+?)}(.*)"),
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
-    private final Map<ItemStack, Integer> itemsToCraft = new HashMap<>();
-    private final Map<Material, String> itemsBossBar = new HashMap<>();
+    private final List<RequiredCrafting> itemsToCraft = new ArrayList<>();
+    // The requirements of each result material, by its ordinal; null for materials that are not part of the mission.
+    private final RequiredCrafting[][] itemsToCraftByMaterial = new RequiredCrafting[Material.values().length][];
 
     private JavaPlugin plugin;
 
@@ -62,13 +64,31 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
                 throw new MissionLoadException("Invalid crafting result " + type + ".");
             }
 
-            itemsToCraft.put(new ItemStack(material, 1, data), amount);
-            itemsBossBar.put(material, bossBar);
+            RequiredCrafting requiredCrafting = findRequirement(material, data);
+
+            // The same result configured again overrides the previous requirement.
+            if (requiredCrafting != null) {
+                requiredCrafting.amount = amount;
+                requiredCrafting.bossBar = bossBar;
+                continue;
+            }
+
+            requiredCrafting = new RequiredCrafting(itemsToCraft.size(), new ItemStack(material, 1, data), amount, bossBar);
+            itemsToCraft.add(requiredCrafting);
+
+            RequiredCrafting[] materialRequirements = itemsToCraftByMaterial[material.ordinal()];
+            if (materialRequirements == null) {
+                materialRequirements = new RequiredCrafting[]{requiredCrafting};
+            } else {
+                materialRequirements = Arrays.copyOf(materialRequirements, materialRequirements.length + 1);
+                materialRequirements[materialRequirements.length - 1] = requiredCrafting;
+            }
+            itemsToCraftByMaterial[material.ordinal()] = materialRequirements;
         }
 
         Bukkit.getPluginManager().registerEvents(this, plugin);
 
-        setClearMethod(craftingsTracker -> craftingsTracker.craftedItems.clear());
+        setClearMethod(craftingsTracker -> Arrays.fill(craftingsTracker.craftedItems, 0));
     }
 
     @Override
@@ -81,9 +101,9 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
         int requiredItems = 0;
         int interactions = 0;
 
-        for (Map.Entry<ItemStack, Integer> entry : this.itemsToCraft.entrySet()) {
-            requiredItems += entry.getValue();
-            interactions += Math.min(craftingsTracker.getCrafts(entry.getKey()), entry.getValue());
+        for (RequiredCrafting requiredCrafting : this.itemsToCraft) {
+            requiredItems += requiredCrafting.amount;
+            interactions += Math.min(craftingsTracker.getCrafts(requiredCrafting), requiredCrafting.amount);
         }
 
         return (double) interactions / requiredItems;
@@ -98,17 +118,15 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
 
         int interactions = 0;
 
-        for (Map.Entry<ItemStack, Integer> entry : this.itemsToCraft.entrySet())
-            interactions += Math.min(craftingsTracker.getCrafts(entry.getKey()), entry.getValue());
+        for (RequiredCrafting requiredCrafting : this.itemsToCraft)
+            interactions += Math.min(craftingsTracker.getCrafts(requiredCrafting), requiredCrafting.amount);
 
         return interactions;
     }
 
     public int getRequired(ItemStack itemStack) {
-        ItemStack keyItem = itemStack.clone();
-        keyItem.setAmount(1);
-
-        return this.itemsToCraft.getOrDefault(keyItem, 0);
+        RequiredCrafting requiredCrafting = findRequirement(itemStack);
+        return requiredCrafting == null ? 0 : requiredCrafting.amount;
     }
 
     public int getProgress(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
@@ -116,7 +134,8 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
         if (craftingsTracker == null)
             return 0;
 
-        return craftingsTracker.getCrafts(itemStack);
+        RequiredCrafting requiredCrafting = findRequirement(itemStack);
+        return requiredCrafting == null ? 0 : craftingsTracker.getCrafts(requiredCrafting);
     }
 
     @Override
@@ -134,9 +153,13 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
         for (Map.Entry<SuperiorPlayer, CraftingsTracker> entry : entrySet()) {
             String uuid = entry.getKey().getUniqueId().toString();
             int index = 0;
-            for (Map.Entry<ItemStack, Integer> craftedEntry : entry.getValue().craftedItems.entrySet()) {
-                section.set(uuid + "." + index + ".item", craftedEntry.getKey());
-                section.set(uuid + "." + index + ".amount", craftedEntry.getValue());
+            int[] craftedItems = entry.getValue().craftedItems;
+            for (int slot = 0; slot < craftedItems.length; slot++) {
+                if (craftedItems[slot] <= 0)
+                    continue;
+
+                section.set(uuid + "." + index + ".item", itemsToCraft.get(slot).keyItem);
+                section.set(uuid + "." + index + ".amount", craftedItems[slot]);
                 index++;
             }
         }
@@ -148,7 +171,7 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
             if (uuid.equals("players"))
                 continue;
 
-            CraftingsTracker craftingsTracker = new CraftingsTracker();
+            CraftingsTracker craftingsTracker = createTracker();
             UUID playerUUID = UUID.fromString(uuid);
             SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(playerUUID);
 
@@ -156,15 +179,17 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
 
             for (String key : section.getConfigurationSection(uuid).getKeys(false)) {
                 ItemStack itemStack = section.getItemStack(uuid + "." + key + ".item");
-                int amount = section.getInt(uuid + "." + key + ".amount");
-                craftingsTracker.craftedItems.put(itemStack, amount);
+                RequiredCrafting requiredCrafting = itemStack == null ? null : findRequirement(itemStack);
+                // Items that are no longer part of the mission do not count for its progress.
+                if (requiredCrafting != null)
+                    craftingsTracker.trackItem(requiredCrafting, section.getInt(uuid + "." + key + ".amount"));
             }
         }
     }
 
     @Override
     public void formatItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
-        CraftingsTracker craftingsTracker = getOrCreate(superiorPlayer, s -> new CraftingsTracker());
+        CraftingsTracker craftingsTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if(craftingsTracker == null)
             return;
@@ -185,38 +210,52 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onInventoryClick(InventoryClickEvent e) {
-        if (e.getClickedInventory() == null || (e.getClickedInventory().getType() != InventoryType.WORKBENCH &&
-                e.getClickedInventory().getType() != InventoryType.CRAFTING && e.getClickedInventory().getType() != InventoryType.FURNACE))
+    public void onItemCraft(CraftItemEvent e) {
+        ItemStack resultItem = e.getInventory().getResult();
+
+        if (resultItem == null)
             return;
 
-        int requiredSlot = e.getClickedInventory().getType() == InventoryType.FURNACE ? 2 : 0;
+        RequiredCrafting requiredCrafting = findRequirement(resultItem);
 
-        ItemStack resultItem = e.getCurrentItem().clone();
-        resultItem.setAmount(1);
+        if (requiredCrafting == null)
+            return;
+
+        int craftedAmount = getCraftedAmount(e, resultItem);
+
+        if (craftedAmount <= 0)
+            return;
 
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(e.getWhoClicked().getUniqueId());
 
-        if (e.getRawSlot() == requiredSlot && itemsToCraft.containsKey(resultItem) &&
-                superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this)) {
-            int amountOfResult = countItems(e.getWhoClicked(), resultItem);
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                int afterTickAmountOfResult = countItems(e.getWhoClicked(), resultItem);
-                resultItem.setAmount(afterTickAmountOfResult - amountOfResult);
-                trackItem(superiorPlayer, resultItem);
-            }, 1L);
-        }
+        if (superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+            trackItem(superiorPlayer, requiredCrafting, craftedAmount);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onFurnaceExtract(FurnaceExtractEvent e) {
+        if (e.getItemAmount() <= 0)
+            return;
+
+        RequiredCrafting requiredCrafting = findRequirement(e.getItemType(), (short) 0);
 
+        if (requiredCrafting == null)
+            return;
+
+        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(e.getPlayer());
+
+        if (superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+            trackItem(superiorPlayer, requiredCrafting, e.getItemAmount());
     }
 
-    private void trackItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
-        CraftingsTracker blocksTracker = getOrCreate(superiorPlayer, s -> new CraftingsTracker());
+    private void trackItem(SuperiorPlayer superiorPlayer, RequiredCrafting requiredCrafting, int amount) {
+        CraftingsTracker blocksTracker = getOrCreate(superiorPlayer, s -> createTracker());
         if (blocksTracker == null)
             return;
 
-        blocksTracker.trackItem(itemStack);
-        if (itemsBossBar.containsKey(itemStack.getType()))
-            sendBossBar(superiorPlayer, itemsBossBar.get(itemStack.getType()), getProgress(superiorPlayer, itemStack), getRequired(itemStack), getProgress(superiorPlayer));
+        blocksTracker.trackItem(requiredCrafting, amount);
+        sendBossBar(superiorPlayer, requiredCrafting.bossBar, blocksTracker.getCrafts(requiredCrafting),
+                requiredCrafting.amount, getProgress(superiorPlayer));
 
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
             if (canComplete(superiorPlayer))
@@ -224,90 +263,165 @@ public final class CraftingMissions extends Mission<CraftingMissions.CraftingsTr
         }), 2L);
     }
 
-    private static int countItems(HumanEntity humanEntity, ItemStack itemStack) {
-        int amount = 0;
+    private CraftingsTracker createTracker() {
+        return new CraftingsTracker(itemsToCraft.size());
+    }
 
-        if (itemStack == null)
-            return amount;
+    /**
+     * Get the requirement of a crafted item, or null if it is not part of the mission.
+     * Items are matched by their material and data only, whatever their meta is.
+     */
+    @Nullable
+    private RequiredCrafting findRequirement(ItemStack itemStack) {
+        return findRequirement(itemStack.getType(), itemStack.getDurability());
+    }
 
-        PlayerInventory playerInventory = humanEntity.getInventory();
+    @Nullable
+    private RequiredCrafting findRequirement(Material material, short data) {
+        RequiredCrafting[] materialRequirements = itemsToCraftByMaterial[material.ordinal()];
 
-        for (ItemStack invItem : playerInventory.getContents()) {
-            if (invItem != null && itemStack.isSimilar(invItem))
-                amount += invItem.getAmount();
+        if (materialRequirements != null) {
+            for (RequiredCrafting requiredCrafting : materialRequirements) {
+                if (requiredCrafting.keyItem.getDurability() == data)
+                    return requiredCrafting;
+            }
         }
 
-        if (itemStack.isSimilar(humanEntity.getItemOnCursor()))
-            amount += humanEntity.getItemOnCursor().getAmount();
+        return null;
+    }
 
-        return amount;
+    /**
+     * Get the amount of items the click of the event crafts, without looking at the inventory after it.
+     */
+    private static int getCraftedAmount(CraftItemEvent e, ItemStack resultItem) {
+        int resultAmount = resultItem.getAmount();
+        HumanEntity whoClicked = e.getWhoClicked();
+
+        ItemStack cursorItem = e.getCursor();
+        boolean emptyCursor = cursorItem == null || cursorItem.getType() == Material.AIR;
+
+        switch (e.getClick()) {
+            case LEFT:
+            case RIGHT:
+                // The result is picked up by the cursor, if it can hold it.
+                if (emptyCursor)
+                    return resultAmount;
+                return cursorItem.isSimilar(resultItem) &&
+                        cursorItem.getAmount() + resultAmount <= cursorItem.getMaxStackSize() ? resultAmount : 0;
+            case NUMBER_KEY:
+                // An occupied hotbar slot is moved to a free slot of the inventory, if there is one.
+                switch (e.getAction()) {
+                    case HOTBAR_SWAP:
+                        return resultAmount;
+                    case HOTBAR_MOVE_AND_READD:
+                        return whoClicked.getInventory().firstEmpty() != -1 ? resultAmount : 0;
+                    default:
+                        return 0;
+                }
+            case DROP:
+            case CONTROL_DROP:
+                // The event is fired for any cursor, but the result is only thrown with an empty one.
+                return emptyCursor ? resultAmount : 0;
+            case SHIFT_LEFT:
+            case SHIFT_RIGHT:
+                return getMaxCrafts(e.getInventory(), whoClicked.getInventory(), resultItem) * resultAmount;
+            default:
+                return 0;
+        }
     }
 
-    private static int countSimpleItems(HumanEntity humanEntity, ItemStack itemStack) {
-        int amount = 0;
+    /**
+     * Get the amount of times the recipe can be crafted, limited by the ingredients in the
+     * crafting matrix and by the space for the results in the inventory of the player.
+     */
+    private static int getMaxCrafts(CraftingInventory craftingInventory, PlayerInventory playerInventory, ItemStack resultItem) {
+        int maxCrafts = Integer.MAX_VALUE;
 
-        if (itemStack == null)
-            return amount;
+        for (ItemStack ingredient : craftingInventory.getMatrix()) {
+            if (ingredient != null && ingredient.getType() != Material.AIR)
+                maxCrafts = Math.min(maxCrafts, ingredient.getAmount());
+        }
 
-        PlayerInventory playerInventory = humanEntity.getInventory();
+        if (maxCrafts == Integer.MAX_VALUE)
+            return 0;
 
-        for (ItemStack invItem : playerInventory.getContents()) {
-            if (invItem != null && itemStack.getType() == invItem.getType())
-                amount += invItem.getAmount();
+        int maxStackSize = resultItem.getMaxStackSize();
+        int freeSpace = 0;
+        ItemStack[] contents = playerInventory.getContents();
+
+        // Only the storage slots of the inventory can receive the results.
+        for (int slot = 0; slot < 36 && slot < contents.length; slot++) {
+            ItemStack itemStack = contents[slot];
+            if (itemStack == null || itemStack.getType() == Material.AIR)
+                freeSpace += maxStackSize;
+            else if (itemStack.isSimilar(resultItem))
+                freeSpace += Math.max(0, maxStackSize - itemStack.getAmount());
         }
 
-        if (itemStack.getType() == humanEntity.getItemOnCursor().getType())
-            amount += humanEntity.getItemOnCursor().getAmount();
-
-        return amount;
+        return Math.min(maxCrafts, freeSpace / resultItem.getAmount());
     }
 
     private String parsePlaceholders(CraftingsTracker entityTracker, String line) {
         Matcher matcher = percentagePattern.matcher(line);
 
         if (matcher.matches()) {
-            try {
-                String requiredBlock = matcher.group(2).toUpperCase();
-                ItemStack itemStack = new ItemStack(Material.valueOf(requiredBlock));
-                Optional<Map.Entry<ItemStack, Integer>> entry = itemsToCraft.entrySet().stream().filter(e -> e.getKey().isSimilar(itemStack)).findAny();
-                if (entry.isPresent()) {
-                    line = line.replace("{percentage_" + matcher.group(2) + "}",
-                            "" + (entityTracker.getCrafts(itemStack) * 100) / entry.get().getValue());
-                }
-            } catch (Exception ignored) {
+            RequiredCrafting requiredCrafting = findPlaceholderRequirement(matcher.group(2));
+            if (requiredCrafting != null) {
+                line = line.replace("{percentage_" + matcher.group(2) + "}",
+                        "" + (entityTracker.getCrafts(requiredCrafting) * 100) / requiredCrafting.amount);
             }
         }
 
         if ((matcher = valuePattern.matcher(line)).matches()) {
-            try {
-                String requiredBlock = matcher.group(2).toUpperCase();
-                ItemStack itemStack = new ItemStack(Material.valueOf(requiredBlock));
-                Optional<Map.Entry<ItemStack, Integer>> entry = itemsToCraft.entrySet().stream().filter(e -> e.getKey().isSimilar(itemStack)).findAny();
-                if (entry.isPresent()) {
-                    line = line.replace("{value_" + matcher.group(2) + "}",
-                            "" + (entityTracker.getCrafts(itemStack)));
-                }
-            } catch (Exception ignored) {
+            RequiredCrafting requiredCrafting = findPlaceholderRequirement(matcher.group(2));
+            if (requiredCrafting != null) {
+                line = line.replace("{value_" + matcher.group(2) + "}",
+                        "" + entityTracker.getCrafts(requiredCrafting));
             }
         }
 
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
+    @Nullable
+    private RequiredCrafting findPlaceholderRequirement(String requiredItem) {
+        try {
+            return findRequirement(Material.valueOf(requiredItem.toUpperCase()), (short) 0);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static final class RequiredCrafting {
+
+        private final int slot;
+        private final ItemStack keyItem;
+        private int amount;
+        private String bossBar;
+
+        RequiredCrafting(int slot, ItemStack keyItem, int amount, String bossBar) {
+            this.slot = slot;
+            this.keyItem = keyItem;
+            this.amount = amount;
+            this.bossBar = bossBar;
+        }
+
+    }
+
     public static class CraftingsTracker {
 
-        private final Map<ItemStack, Integer> craftedItems = new HashMap<>();
+        private final int[] craftedItems;
+
+        CraftingsTracker(int itemsAmount) {
+            this.craftedItems = new int[itemsAmount];
+        }
 
-        void trackItem(ItemStack itemStack) {
-            ItemStack keyItem = itemStack.clone();
-            keyItem.setAmount(1);
-            craftedItems.put(keyItem, craftedItems.getOrDefault(keyItem, 0) + itemStack.getAmount());
+        void trackItem(RequiredCrafting requiredCrafting, int amount) {
+            craftedItems[requiredCrafting.slot] += amount;
         }
 
-        int getCrafts(ItemStack itemStack) {
-            ItemStack keyItem = itemStack.clone();
-            keyItem.setAmount(1);
-            return craftedItems.getOrDefault(keyItem, 0);
+        int getCrafts(RequiredCrafting requiredCrafting) {
+            return craftedItems[requiredCrafting.slot];
         }
 
     }
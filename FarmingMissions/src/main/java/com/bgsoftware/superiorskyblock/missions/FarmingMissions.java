@@ -63,7 +63,9 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
             .build();
 
     private JavaPlugin plugin;
-    private final Map<List<String>, Integer> requiredPlants = new HashMap<>();
+    private final List<RequiredPlants> requiredPlants = new ArrayList<>();
+    private final Map<String, int[]> plantSlots = new HashMap<>();
+    private boolean hasAllRequirement;
     private boolean resetAfterFinish;
 
     @Override
@@ -76,7 +78,20 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
         for (String key : section.getConfigurationSection("required-plants").getKeys(false)) {
             List<String> requiredPlants = section.getStringList("required-plants." + key + ".types");
             int requiredAmount = section.getInt("required-plants." + key + ".amount");
-            this.requiredPlants.put(requiredPlants, requiredAmount);
+            RequiredPlants requirement = new RequiredPlants(this.requiredPlants.size(), requiredPlants, requiredAmount);
+            this.requiredPlants.add(requirement);
+
+            if (requirement.all) {
+                hasAllRequirement = true;
+                continue;
+            }
+
+            for (String plant : new HashSet<>(requiredPlants)) {
+                int[] slots = plantSlots.get(plant);
+                slots = slots == null ? new int[1] : Arrays.copyOf(slots, slots.length + 1);
+                slots[slots.length - 1] = requirement.slot;
+                plantSlots.put(plant, slots);
+            }
         }
 
         resetAfterFinish = section.getBoolean("reset-after-finish", false);
@@ -94,9 +109,9 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
         int requiredPlants = 0;
         int progress = 0;
 
-        for (Map.Entry<List<String>, Integer> requiredPlant : this.requiredPlants.entrySet()) {
-            requiredPlants += requiredPlant.getValue();
-            progress += Math.min(farmingTracker.getPlants(requiredPlant.getKey()), requiredPlant.getValue());
+        for (RequiredPlants requiredPlant : this.requiredPlants) {
+            requiredPlants += requiredPlant.amount;
+            progress += Math.min(farmingTracker.getPlants(requiredPlant), requiredPlant.amount);
         }
 
         return (double) progress / requiredPlants;
@@ -111,8 +126,8 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
 
         int progress = 0;
 
-        for (Map.Entry<List<String>, Integer> requiredPlant : this.requiredPlants.entrySet())
-            progress += Math.min(farmingTracker.getPlants(requiredPlant.getKey()), requiredPlant.getValue());
+        for (RequiredPlants requiredPlant : this.requiredPlants)
+            progress += Math.min(farmingTracker.getPlants(requiredPlant), requiredPlant.amount);
 
         return progress;
     }
@@ -143,14 +158,14 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
         ConfigurationSection grownPlants = section.getConfigurationSection("grown-plants");
         if (grownPlants != null) {
             for (String uuid : grownPlants.getKeys(false)) {
-                FarmingTracker farmingTracker = new FarmingTracker();
+                FarmingTracker farmingTracker = createTracker();
                 UUID playerUUID = UUID.fromString(uuid);
                 SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(playerUUID);
 
                 insertData(superiorPlayer, farmingTracker);
 
                 for (String key : grownPlants.getConfigurationSection(uuid).getKeys(false)) {
-                    farmingTracker.farmingTracker.put(key, grownPlants.getInt(uuid + "." + key));
+                    farmingTracker.track(key, grownPlants.getInt(uuid + "." + key), plantSlots.get(key));
                 }
             }
         }
@@ -158,7 +173,7 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
 
     @Override
     public void formatItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
-        FarmingTracker farmingTracker = getOrCreate(superiorPlayer, s -> new FarmingTracker());
+        FarmingTracker farmingTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if (farmingTracker == null)
             return;
@@ -241,12 +256,12 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
         if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
-        FarmingTracker farmingTracker = getOrCreate(superiorPlayer, s -> new FarmingTracker());
+        FarmingTracker farmingTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if (farmingTracker == null)
             return;
 
-        farmingTracker.track(blockTypeName);
+        farmingTracker.track(blockTypeName, 1, plantSlots.get(blockTypeName));
 
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
             if (canComplete(superiorPlayer))
@@ -304,12 +319,12 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
         if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
-        FarmingTracker farmingTracker = getOrCreate(superiorPlayer, s -> new FarmingTracker());
+        FarmingTracker farmingTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if (farmingTracker == null)
             return;
 
-        farmingTracker.track(blockTypeName);
+        farmingTracker.track(blockTypeName, 1, plantSlots.get(blockTypeName));
 
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
             if (canComplete(superiorPlayer))
@@ -345,15 +360,21 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
     }
 
     private boolean isMissionPlant(String blockTypeName) {
-        if (blockTypeName == null)
-            return false;
+        return blockTypeName != null && (hasAllRequirement || plantSlots.containsKey(blockTypeName));
+    }
+
+    private FarmingTracker createTracker() {
+        return new FarmingTracker(requiredPlants.size());
+    }
 
-        for (List<String> requiredPlant : requiredPlants.keySet()) {
-            if (requiredPlant.contains(blockTypeName) || requiredPlant.contains("all") || requiredPlant.contains("ALL"))
-                return true;
+    @Nullable
+    private RequiredPlants findRequirement(String requiredBlock, String requiredCustomBlock) {
+        for (RequiredPlants requiredPlant : requiredPlants) {
+            if (requiredPlant.plants.contains(requiredBlock) || requiredPlant.plants.contains(requiredCustomBlock))
+                return requiredPlant;
         }
 
-        return false;
+        return null;
     }
 
     private String parsePlaceholders(FarmingTracker farmingTracker, String line) {
@@ -362,49 +383,65 @@ public final class FarmingMissions extends Mission<FarmingMissions.FarmingTracke
         if (matcher.matches()) {
             String requiredBlock = matcher.group(2).toUpperCase();
             String requiredCustomBlock = matcher.group(2);
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredPlants.entrySet().stream().filter(e ->
-                    e.getKey().contains(requiredBlock) || e.getKey().contains(requiredCustomBlock)
-            ).findAny();
-            if (entry.isPresent()) {
+            RequiredPlants requirement = findRequirement(requiredBlock, requiredCustomBlock);
+            if (requirement != null) {
                 line = line.replace("{percentage_" + matcher.group(2) + "}",
-                        "" + (farmingTracker.getPlants(entry.get().getKey()) * 100) / entry.get().getValue());
+                        "" + (farmingTracker.getPlants(requirement) * 100) / requirement.amount);
             }
         }
 
         if ((matcher = valuePattern.matcher(line)).matches()) {
             String requiredBlock = matcher.group(2).toUpperCase();
             String requiredCustomBlock = matcher.group(2);
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredPlants.entrySet().stream().filter(e ->
-                    e.getKey().contains(requiredBlock) || e.getKey().contains(requiredCustomBlock)
-            ).findFirst();
-            if (entry.isPresent()) {
+            RequiredPlants requirement = findRequirement(requiredBlock, requiredCustomBlock);
+            if (requirement != null) {
                 line = line.replace("{value_" + matcher.group(2) + "}",
-                        "" + farmingTracker.getPlants(entry.get().getKey()));
+                        "" + farmingTracker.getPlants(requirement));
             }
         }
 
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
+    private static final class RequiredPlants {
+
+        private final int slot;
+        private final List<String> plants;
+        private final int amount;
+        private final boolean all;
+
+        RequiredPlants(int slot, List<String> plants, int amount) {
+            this.slot = slot;
+            this.plants = plants;
+            this.amount = amount;
+            this.all = plants.contains("ALL") || plants.contains("all");
+        }
+
+    }
+
     public static class FarmingTracker {
 
+        // Raw counts per plant are kept only for saving; progress is read from the group counters.
         private final Map<String, Integer> farmingTracker = new HashMap<>();
+        private final int[] groupCounts;
+        private int totalPlants = 0;
 
-        void track(String blockType) {
-            int newAmount = 1 + farmingTracker.getOrDefault(blockType, 0);
-            farmingTracker.put(blockType, newAmount);
+        FarmingTracker(int groupsAmount) {
+            this.groupCounts = new int[groupsAmount];
         }
 
-        int getPlants(List<String> plants) {
-            int amount = 0;
-            boolean all = plants.contains("ALL") || plants.contains("all");
+        void track(String blockType, int amount, @Nullable int[] slots) {
+            farmingTracker.merge(blockType, amount, Integer::sum);
+            totalPlants += amount;
 
-            for (String plant : farmingTracker.keySet()) {
-                if (all || plants.contains(plant))
-                    amount += farmingTracker.get(plant);
+            if (slots != null) {
+                for (int slot : slots)
+                    groupCounts[slot] += amount;
             }
+        }
 
-            return amount;
+        int getPlants(RequiredPlants requiredPlants) {
+            return requiredPlants.all ? totalPlants : groupCounts[requiredPlants.slot];
         }
 
     }
@@ -7,25 +7,59 @@ import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.scripts.IScriptEngine;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import javax.annotation.Nullable;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
 import javax.script.SimpleBindings;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @SuppressWarnings("unused")
 public final class IslandMissions extends Mission<Boolean> implements Listener {
 
     private final Map<String, Boolean> missionEvents = new HashMap<>();
 
+    private static final Pattern comparisonPattern = Pattern.compile("(.+?)\\s*(==|!=|>=|<=|>|<)\\s*(.+)"),
+            numberPattern = Pattern.compile("-?\\d+(\\.\\d+)?"),
+            placeholderPattern = Pattern.compile("%([^%\\s]+)%"),
+            eventGettersPattern = Pattern.compile("event((\\.(get|is)\\w*\\(\\))+)");
+
+    private final ThreadLocal<SimpleBindings> scriptBindings = ThreadLocal.withInitial(SimpleBindings::new);
+
     private Placeholders placeholders = new Placeholders_None();
+    private long placeholdersCacheDuration;
+    private final Map<String, Long> placeholdersCacheDurations = new HashMap<>();
+    private final Map<UUID, Map<String, CachedPlaceholder>> cachedPlaceholders = new ConcurrentHashMap<>();
+    private final LongAdder placeholdersCacheHits = new LongAdder();
+    private final LongAdder placeholdersCacheMisses = new LongAdder();
     private String successCheck;
+    // Checks that can be answered without the script engine; null when the script must be evaluated.
+    @Nullable
+    private Boolean constantSuccess;
+    @Nullable
+    private SimpleComparison simpleComparison;
+    // The success check compiled for the current script engine.
+    private volatile CompiledSuccessCheck compiledSuccessCheck;
     private JavaPlugin plugin;
     private SuperiorSkyblock superiorSkyblock;
 
@@ -44,15 +78,40 @@ public final class IslandMissions extends Mission<Boolean> implements Listener {
                 missionEvents.put(event, false);
         }
 
-        successCheck = section.getString("success-check", "true");
+        successCheck = section.getString("success-check", "true").trim();
+
+        // A "false" check has always been skipped, rewarding the player directly.
+        if (successCheck.equals("true") || successCheck.equalsIgnoreCase("false"))
+            constantSuccess = true;
+        else
+            simpleComparison = SimpleComparison.parse(successCheck);
 
+        placeholdersCacheDuration = section.getLong("placeholders-cache-duration", 1000);
+        if (section.isConfigurationSection("placeholders-cache-durations")) {
+            ConfigurationSection durationsSection = section.getConfigurationSection("placeholders-cache-durations");
+            for (String placeholder : durationsSection.getKeys(false))
+                placeholdersCacheDurations.put(placeholder, durationsSection.getLong(placeholder));
+        }
+
+        registerMissionEvents();
         Bukkit.getPluginManager().registerEvents(this, plugin);
 
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            if (Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI"))
-                placeholders = new Placeholders_PAPI();
+            if (Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+                boolean cachePlaceholders = placeholdersCacheDuration > 0 ||
+                        placeholdersCacheDurations.values().stream().anyMatch(duration -> duration > 0);
+                placeholders = cachePlaceholders ? new Placeholders_Cached(new Placeholders_PAPI()) : new Placeholders_PAPI();
+            }
         }, 1L);
 
+        long reportInterval = section.getLong("placeholders-cache-report-interval", 0) * 20;
+        if (reportInterval > 0) {
+            Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> plugin.getLogger().info(
+                    "IslandMissions placeholders cache: " + placeholdersCacheHits.sum() + " hits, " +
+                            placeholdersCacheMisses.sum() + " misses (" + (int) (getPlaceholdersCacheHitRate() * 100) + "% hit rate)"),
+                    reportInterval, reportInterval);
+        }
+
     }
 
     @Override
@@ -79,144 +138,297 @@ public final class IslandMissions extends Mission<Boolean> implements Listener {
      *  Events
      */
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandDeposit(IslandBankDepositEvent e) {
-        tryComplete(e, e.getPlayer());
+    private static final Map<String, IslandEventType<?>> islandEventTypes = new HashMap<>();
+
+    static {
+        registerEventType(IslandBankDepositEvent.class, IslandBankDepositEvent::getPlayer, null);
+        registerEventType(IslandBankWithdrawEvent.class, IslandBankWithdrawEvent::getPlayer, null);
+        registerEventType(IslandBiomeChangeEvent.class, IslandBiomeChangeEvent::getPlayer, null);
+        registerEventType(IslandCoopPlayerEvent.class, IslandCoopPlayerEvent::getPlayer, IslandCoopPlayerEvent::getTarget);
+        registerEventType(IslandCreateEvent.class, IslandCreateEvent::getPlayer, null);
+        registerEventType(IslandDisbandEvent.class, IslandDisbandEvent::getPlayer, null);
+        registerEventType(IslandEnterEvent.class, IslandEnterEvent::getPlayer, null);
+        registerEventType(IslandEnterProtectedEvent.class, IslandEnterProtectedEvent::getPlayer, null);
+        registerEventType(IslandInviteEvent.class, IslandInviteEvent::getPlayer, IslandInviteEvent::getTarget);
+        registerEventType(IslandJoinEvent.class, IslandJoinEvent::getPlayer, null);
+        registerEventType(IslandKickEvent.class, IslandKickEvent::getPlayer, IslandKickEvent::getTarget);
+        registerEventType(IslandLeaveEvent.class, IslandLeaveEvent::getPlayer, null);
+        registerEventType(IslandLeaveProtectedEvent.class, IslandLeaveProtectedEvent::getPlayer, null);
+        registerEventType(IslandQuitEvent.class, IslandQuitEvent::getPlayer, null);
+        registerEventType(IslandTransferEvent.class, IslandTransferEvent::getOldOwner, IslandTransferEvent::getNewOwner);
+        registerEventType(IslandUncoopPlayerEvent.class, IslandUncoopPlayerEvent::getPlayer, IslandUncoopPlayerEvent::getTarget);
+        registerEventType(IslandWorthCalculatedEvent.class, IslandWorthCalculatedEvent::getPlayer, null);
+        registerEventType(IslandWorthUpdateEvent.class, e -> e.getIsland().getOwner(), null);
+        registerEventType(IslandSchematicPasteEvent.class, e -> e.getIsland().getOwner(), null);
+        registerEventType(MissionCompleteEvent.class, MissionCompleteEvent::getPlayer, null);
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandWithdraw(IslandBankWithdrawEvent e) {
-        tryComplete(e, e.getPlayer());
+    private static <E extends Event> void registerEventType(Class<E> eventClass, Function<E, SuperiorPlayer> playerFunction,
+                                                            @Nullable Function<E, SuperiorPlayer> targetFunction) {
+        islandEventTypes.put(eventClass.getSimpleName(), new IslandEventType<>(eventClass, playerFunction, targetFunction));
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandBiomeChange(IslandBiomeChangeEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+    /**
+     * Register a listener only for the events used by this mission.
+     * Each listener is bound to its event type and whether the target of the event is rewarded.
+     */
+    private void registerMissionEvents() {
+        for (Map.Entry<String, Boolean> missionEvent : missionEvents.entrySet()) {
+            IslandEventType<?> islandEventType = islandEventTypes.get(missionEvent.getKey());
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandCoop(IslandCoopPlayerEvent e) {
-        tryComplete(e, e.getPlayer(), e.getTarget());
-    }
+            if (islandEventType == null) {
+                plugin.getLogger().info(ChatColor.RED + "Event " + missionEvent.getKey() + " is invalid, skipping...");
+                continue;
+            }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandCreate(IslandCreateEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+            boolean rewardTarget = missionEvent.getValue();
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandDisband(IslandDisbandEvent e) {
-        tryComplete(e, e.getPlayer());
+            Bukkit.getPluginManager().registerEvent(islandEventType.eventClass, this, EventPriority.MONITOR,
+                    (listener, event) -> {
+                        // Events are matched by their exact type, subclasses share the handler list.
+                        if (event.getClass() == islandEventType.eventClass)
+                            tryComplete(islandEventType, event, rewardTarget);
+                    }, plugin, true);
+        }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandEnter(IslandEnterEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+    private <E extends Event> void tryComplete(IslandEventType<E> islandEventType, Event event, boolean rewardTarget) {
+        E islandEvent = islandEventType.eventClass.cast(event);
+        SuperiorPlayer superiorPlayer = islandEventType.playerFunction.apply(islandEvent);
+        SuperiorPlayer targetPlayer = islandEventType.targetFunction == null ? null :
+                islandEventType.targetFunction.apply(islandEvent);
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandEnterProtected(IslandEnterProtectedEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+        SuperiorPlayer rewardedPlayer = !rewardTarget ? superiorPlayer : targetPlayer;
+        if (rewardedPlayer == null)
+            return;
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandInvite(IslandInviteEvent e) {
-        tryComplete(e, e.getPlayer(), e.getTarget());
-    }
+        boolean success;
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandJoin(IslandJoinEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+        if (constantSuccess != null) {
+            success = constantSuccess;
+        } else {
+            Boolean comparisonResult = simpleComparison == null ? null : simpleComparison.test(event);
+            success = comparisonResult != null ? comparisonResult : evalSuccessCheck(event, superiorPlayer);
+        }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandKick(IslandKickEvent e) {
-        tryComplete(e, e.getPlayer(), e.getTarget());
+        if (success) {
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                insertData(rewardedPlayer, true);
+                superiorSkyblock.getMissions().rewardMission(this, rewardedPlayer, true);
+            }, 5L);
+        }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandLeave(IslandLeaveEvent e) {
-        tryComplete(e, e.getPlayer());
+    private boolean evalSuccessCheck(Event event, SuperiorPlayer superiorPlayer) {
+        IScriptEngine scriptEngine = superiorSkyblock.getScriptEngine();
+        SimpleBindings bindings = scriptBindings.get();
+        bindings.put("event", event);
+
+        try {
+            CompiledScript compiledScript = getCompiledScript(scriptEngine);
+            Object result = compiledScript == null ? scriptEngine.eval(successCheck, bindings) : compiledScript.eval(bindings);
+            return Boolean.parseBoolean(placeholders.parse(result + "", superiorPlayer.asOfflinePlayer()));
+        } catch (Exception ex) {
+            plugin.getLogger().info("&cError occurred while checking for success condition for IslandMission.");
+            plugin.getLogger().info("&cCurrent Script Engine: " + scriptEngine);
+            plugin.getLogger().info("&cPlaceholders: " + placeholders);
+            ex.printStackTrace();
+            return false;
+        } finally {
+            bindings.remove("event");
+        }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandLeaveProtected(IslandLeaveProtectedEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+    @Nullable
+    private CompiledScript getCompiledScript(IScriptEngine scriptEngine) {
+        CompiledSuccessCheck compiledSuccessCheck = this.compiledSuccessCheck;
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandQuit(IslandQuitEvent e) {
-        tryComplete(e, e.getPlayer());
-    }
+        // The script engine can be replaced by other plugins, in which case the check is compiled again.
+        if (compiledSuccessCheck == null || compiledSuccessCheck.scriptEngine != scriptEngine) {
+            CompiledScript compiledScript = null;
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandTransfer(IslandTransferEvent e) {
-        tryComplete(e, e.getOldOwner(), e.getNewOwner());
-    }
+            if (scriptEngine instanceof Compilable) {
+                try {
+                    compiledScript = ((Compilable) scriptEngine).compile(successCheck);
+                } catch (ScriptException ex) {
+                    plugin.getLogger().info("&cCouldn't compile the success condition for IslandMission, it will be evaluated instead.");
+                    ex.printStackTrace();
+                }
+            }
+
+            this.compiledSuccessCheck = compiledSuccessCheck = new CompiledSuccessCheck(scriptEngine, compiledScript);
+        }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandUncoop(IslandUncoopPlayerEvent e) {
-        tryComplete(e, e.getPlayer(), e.getTarget());
+        return compiledSuccessCheck.compiledScript;
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandCalculate(IslandWorthCalculatedEvent e) {
-        tryComplete(e, e.getPlayer());
+    private static final class CompiledSuccessCheck {
+
+        private final IScriptEngine scriptEngine;
+        @Nullable
+        private final CompiledScript compiledScript;
+
+        CompiledSuccessCheck(IScriptEngine scriptEngine, @Nullable CompiledScript compiledScript) {
+            this.scriptEngine = scriptEngine;
+            this.compiledScript = compiledScript;
+        }
+
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandWorthUpdate(IslandWorthUpdateEvent e) {
-        tryComplete(e, e.getIsland().getOwner());
+    /**
+     * A numeric comparison between literals and getters of the event, such as "event.getIsland().getWorth() > 1000".
+     */
+    private static final class SimpleComparison {
+
+        private final Operand left;
+        private final String operator;
+        private final Operand right;
+
+        @Nullable
+        static SimpleComparison parse(String successCheck) {
+            Matcher matcher = comparisonPattern.matcher(successCheck);
+
+            if (!matcher.matches())
+                return null;
+
+            Operand left = Operand.parse(matcher.group(1).trim());
+            Operand right = Operand.parse(matcher.group(3).trim());
+
+            return left == null || right == null ? null : new SimpleComparison(left, matcher.group(2), right);
+        }
+
+        SimpleComparison(Operand left, String operator, Operand right) {
+            this.left = left;
+            this.operator = operator;
+            this.right = right;
+        }
+
+        /**
+         * Get the result of the comparison, or null if it must be evaluated by the script engine.
+         */
+        @Nullable
+        Boolean test(Event event) {
+            Double leftValue = left.getValue(event);
+            Double rightValue = leftValue == null ? null : right.getValue(event);
+
+            if (rightValue == null)
+                return null;
+
+            int compare = Double.compare(leftValue, rightValue);
+
+            switch (operator) {
+                case "==":
+                    return compare == 0;
+                case "!=":
+                    return compare != 0;
+                case ">=":
+                    return compare >= 0;
+                case "<=":
+                    return compare <= 0;
+                case ">":
+                    return compare > 0;
+                default:
+                    return compare < 0;
+            }
+        }
+
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandSchematicPaste(IslandSchematicPasteEvent e) {
-        tryComplete(e, e.getIsland().getOwner());
+    private static final class Operand {
+
+        @Nullable
+        private final Double constant;
+        private final String[] getters;
+        // Resolved getter methods for each step of the chain, by the class they were called on.
+        private final List<Map<Class<?>, Method>> resolvedGetters = new ArrayList<>();
+
+        @Nullable
+        static Operand parse(String operand) {
+            if (numberPattern.matcher(operand).matches())
+                return new Operand(Double.parseDouble(operand), new String[0]);
+
+            Matcher matcher = eventGettersPattern.matcher(operand);
+            if (!matcher.matches())
+                return null;
+
+            return new Operand(null, matcher.group(1).substring(1).replace("()", "").split("\\."));
+        }
+
+        Operand(@Nullable Double constant, String[] getters) {
+            this.constant = constant;
+            this.getters = getters;
+            for (String ignored : getters)
+                resolvedGetters.add(new ConcurrentHashMap<>());
+        }
+
+        /**
+         * Get the numeric value of this operand, or null if it cannot be resolved without the script engine.
+         */
+        @Nullable
+        Double getValue(Event event) {
+            if (constant != null)
+                return constant;
+
+            Object value = event;
+
+            try {
+                for (int i = 0; i < getters.length && value != null; i++) {
+                    String getter = getters[i];
+                    Method method = resolvedGetters.get(i).computeIfAbsent(value.getClass(), clazz -> {
+                        try {
+                            return clazz.getMethod(getter);
+                        } catch (NoSuchMethodException ex) {
+                            return null;
+                        }
+                    });
+
+                    if (method == null)
+                        return null;
+
+                    value = method.invoke(value);
+                }
+            } catch (Exception ex) {
+                return null;
+            }
+
+            return value instanceof Number ? ((Number) value).doubleValue() : null;
+        }
+
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onIslandMissionComplete(MissionCompleteEvent e) {
-        tryComplete(e, e.getPlayer());
+    public long getPlaceholdersCacheHits() {
+        return placeholdersCacheHits.sum();
     }
 
-    private void tryComplete(Event event, SuperiorPlayer superiorPlayer) {
-        tryComplete(event, superiorPlayer, null);
+    public long getPlaceholdersCacheMisses() {
+        return placeholdersCacheMisses.sum();
     }
 
-    private void tryComplete(Event event, SuperiorPlayer superiorPlayer, SuperiorPlayer targetPlayer) {
-        String eventName = event.getClass().getSimpleName();
-        if (missionEvents.containsKey(eventName)) {
-            boolean success = false;
+    public double getPlaceholdersCacheHitRate() {
+        long hits = placeholdersCacheHits.sum();
+        long lookups = hits + placeholdersCacheMisses.sum();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
 
-            SimpleBindings bindings = new SimpleBindings();
-            bindings.put("event", event);
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        cachedPlaceholders.remove(e.getPlayer().getUniqueId());
+    }
 
-            IScriptEngine scriptEngine = superiorSkyblock.getScriptEngine();
+    private static final class IslandEventType<E extends Event> {
 
-            if (!successCheck.equalsIgnoreCase("false")) {
-                try {
-                    String result = placeholders.parse(scriptEngine.eval(successCheck, bindings) + "", superiorPlayer.asOfflinePlayer());
-                    success = Boolean.parseBoolean(result);
-                } catch (Exception ex) {
-                    plugin.getLogger().info("&cError occurred while checking for success condition for IslandMission.");
-                    plugin.getLogger().info("&cCurrent Script Engine: " + scriptEngine);
-                    plugin.getLogger().info("&cPlaceholders: " + placeholders);
-                    ex.printStackTrace();
-                }
-            } else {
-                success = true;
-            }
+        private final Class<E> eventClass;
+        private final Function<E, SuperiorPlayer> playerFunction;
+        @Nullable
+        private final Function<E, SuperiorPlayer> targetFunction;
 
-            if (success) {
-                SuperiorPlayer rewardedPlayer = !missionEvents.get(eventName) ? superiorPlayer : targetPlayer;
-                if (rewardedPlayer != null) {
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                        insertData(rewardedPlayer, true);
-                        superiorSkyblock.getMissions().rewardMission(this, rewardedPlayer, true);
-                    }, 5L);
-                }
-            }
+        IslandEventType(Class<E> eventClass, Function<E, SuperiorPlayer> playerFunction,
+                        @Nullable Function<E, SuperiorPlayer> targetFunction) {
+            this.eventClass = eventClass;
+            this.playerFunction = playerFunction;
+            this.targetFunction = targetFunction;
         }
+
     }
 
     private interface Placeholders {
@@ -234,6 +446,77 @@ public final class IslandMissions extends Mission<Boolean> implements Listener {
 
     }
 
+    /**
+     * Caches the value of each placeholder per player, for placeholders-cache-duration milliseconds
+     * or the duration configured for that placeholder.
+     */
+    private final class Placeholders_Cached implements Placeholders {
+
+        private final Placeholders placeholders;
+
+        Placeholders_Cached(Placeholders placeholders) {
+            this.placeholders = placeholders;
+        }
+
+        @Override
+        public String parse(String string, OfflinePlayer offlinePlayer) {
+            if (string.indexOf('%') == -1)
+                return string;
+
+            Matcher matcher = placeholderPattern.matcher(string);
+
+            if (!matcher.find())
+                return string;
+
+            Map<String, CachedPlaceholder> playerPlaceholders = cachedPlaceholders.computeIfAbsent(
+                    offlinePlayer.getUniqueId(), uuid -> new ConcurrentHashMap<>());
+            long currentTime = System.currentTimeMillis();
+            StringBuffer result = new StringBuffer();
+
+            do {
+                String placeholder = matcher.group(1);
+                long cacheDuration = placeholdersCacheDurations.getOrDefault(placeholder, placeholdersCacheDuration);
+                CachedPlaceholder cachedPlaceholder = playerPlaceholders.get(placeholder);
+
+                String value;
+
+                if (cachedPlaceholder != null && currentTime - cachedPlaceholder.cacheTime < cacheDuration) {
+                    placeholdersCacheHits.increment();
+                    value = cachedPlaceholder.value;
+                } else {
+                    placeholdersCacheMisses.increment();
+                    value = placeholders.parse(matcher.group(), offlinePlayer);
+                    if (cacheDuration > 0)
+                        playerPlaceholders.put(placeholder, new CachedPlaceholder(value, currentTime));
+                }
+
+                matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+            } while (matcher.find());
+
+            matcher.appendTail(result);
+
+            return result.toString();
+        }
+
+        @Override
+        public String toString() {
+            return "Cached{" + placeholders + "}";
+        }
+
+    }
+
+    private static final class CachedPlaceholder {
+
+        private final String value;
+        private final long cacheTime;
+
+        CachedPlaceholder(String value, long cacheTime) {
+            this.value = value;
+            this.cacheTime = cacheTime;
+        }
+
+    }
+
     private static final class Placeholders_None implements Placeholders {
 
         @Override
@@ -6,28 +6,35 @@ import com.bgsoftware.superiorskyblock.api.missions.Mission;
 import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryType;
-import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 
 @SuppressWarnings("unused")
@@ -35,7 +42,17 @@ public final class ItemsMissions extends Mission<ItemsMissions.ItemsTracker> imp
 
     private static final SuperiorSkyblock superiorSkyblock = SuperiorSkyblockAPI.getSuperiorSkyblock();
 
-    private final Map<List<String>, Integer> requiredItems = new HashMap<>();
+    private final List<RequiredItems> requiredItems = new ArrayList<>();
+    // All the distinct items of the requirements; counters of the inventory index are indexed the same way.
+    private final List<ItemStack> trackedItems = new ArrayList<>();
+    private final Map<Material, int[]> trackedItemsByType = new EnumMap<>(Material.class);
+    private boolean hasAllRequirement;
+    private long inventoryCacheDuration;
+
+    // Players waiting for a completion check; drained at most once every completion-check-interval ticks.
+    private final Set<SuperiorPlayer> pendingCompletionChecks = new LinkedHashSet<>();
+    private BukkitTask completionChecksTask = null;
+    private long completionCheckInterval;
 
     private JavaPlugin plugin;
 
@@ -49,125 +66,85 @@ public final class ItemsMissions extends Mission<ItemsMissions.ItemsTracker> imp
         for (String key : section.getConfigurationSection("required-items").getKeys(false)) {
             List<String> itemStacks = section.getStringList("required-items." + key + ".types");
             int requiredAmount = section.getInt("required-items." + key + ".amount");
-            requiredItems.put(itemStacks, requiredAmount);
-        }
-
-        Bukkit.getPluginManager().registerEvents(this, plugin);
 
-        setClearMethod(itemsTracker -> itemsTracker.itemsTracker.clear());
-    }
+            List<Integer> itemIndexes = new ArrayList<>();
 
-    @Override
-    public double getProgress(SuperiorPlayer superiorPlayer) {
-        double progress = 0.0;
-
-        Player player = superiorPlayer.asPlayer();
-
-        if (player == null)
-            return progress;
-
-        Inventory inventory = player.getInventory();
-        Map<ItemStack, Integer> countedItems = countItems(inventory);
-
-        int totalRequiredAmount = 0;
-        int totalItemAmount = 0;
-
-        ItemsTracker itemsTracker = getOrCreate(superiorPlayer, s -> new ItemsTracker());
-
-        if (itemsTracker == null)
-            return 0.0;
+            for (String item : itemStacks) {
+                if (item.equals("ALL") || item.equals("all")) {
+                    hasAllRequirement = true;
+                    continue;
+                }
 
-        for (List<String> requiredItem : requiredItems.keySet()) {
-            int requiredAmount = requiredItems.get(requiredItem);
-            int itemAmount = 0;
-            for (String item : requiredItem) {
                 try {
-                    //Get the amount of the item.
                     Material type = Material.valueOf(item.contains(":") ? item.split(":")[0] : item);
                     short data = Short.parseShort(item.contains(":") ? item.split(":")[1] : "0");
-                    int currentItemAmount = countedItems.get(new ItemStack(type, 1, data));
-
-                    //Making sure to not exceed the required item amount
-                    if (itemAmount + currentItemAmount > requiredAmount)
-                        currentItemAmount = requiredAmount - itemAmount;
-
-                    //Summing the amount to a global variable
-                    itemAmount += currentItemAmount;
-
-                    //Adding the item to a list, so we can remove it later.
-                    itemsTracker.track(new ItemStack(type, currentItemAmount, data));
+                    itemIndexes.add(getTrackedItemIndex(new ItemStack(type, 1, data)));
                 } catch (Exception ignored) {
                 }
             }
 
-            totalRequiredAmount += requiredAmount;
-            totalItemAmount += itemAmount;
+            requiredItems.add(new RequiredItems(itemIndexes, requiredAmount));
         }
 
-        progress = Math.max(progress, (double) totalItemAmount / totalRequiredAmount);
+        inventoryCacheDuration = section.getLong("inventory-cache-duration", 1000);
+        completionCheckInterval = Math.max(1, section.getLong("completion-check-interval", 5));
+
+        Bukkit.getPluginManager().registerEvents(this, plugin);
 
-        return progress;
+        setClearMethod(ItemsTracker::invalidate);
     }
 
     @Override
-    public int getProgressValue(SuperiorPlayer superiorPlayer) {
-        Player player = superiorPlayer.asPlayer();
-
-        if (player == null)
-            return 0;
+    public double getProgress(SuperiorPlayer superiorPlayer) {
+        int[] itemCounts = getItemCounts(superiorPlayer);
 
-        Inventory inventory = player.getInventory();
-        Map<ItemStack, Integer> countedItems = countItems(inventory);
+        if (itemCounts == null)
+            return 0.0;
 
+        int totalRequiredAmount = 0;
         int totalItemAmount = 0;
 
-        ItemsTracker itemsTracker = getOrCreate(superiorPlayer, s -> new ItemsTracker());
-
-        if (itemsTracker == null)
-            return 0;
+        for (RequiredItems requiredItem : requiredItems) {
+            totalRequiredAmount += requiredItem.amount;
+            totalItemAmount += requiredItem.getAmount(itemCounts);
+        }
 
-        for (List<String> requiredItem : requiredItems.keySet()) {
-            int requiredAmount = requiredItems.get(requiredItem);
-            int itemAmount = 0;
-            for (String item : requiredItem) {
-                try {
-                    //Get the amount of the item.
-                    Material type = Material.valueOf(item.contains(":") ? item.split(":")[0] : item);
-                    short data = Short.parseShort(item.contains(":") ? item.split(":")[1] : "0");
-                    int currentItemAmount = countedItems.get(new ItemStack(type, 1, data));
+        return Math.max(0.0, (double) totalItemAmount / totalRequiredAmount);
+    }
 
-                    //Making sure to not exceed the required item amount
-                    if (itemAmount + currentItemAmount > requiredAmount)
-                        currentItemAmount = requiredAmount - itemAmount;
+    @Override
+    public int getProgressValue(SuperiorPlayer superiorPlayer) {
+        int[] itemCounts = getItemCounts(superiorPlayer);
 
-                    //Summing the amount to a global variable
-                    itemAmount += currentItemAmount;
+        if (itemCounts == null)
+            return 0;
 
-                    //Adding the item to a list, so we can remove it later.
-                    itemsTracker.track(new ItemStack(type, currentItemAmount, data));
-                } catch (Exception ignored) {
-                }
-            }
+        int totalItemAmount = 0;
 
-            totalItemAmount += itemAmount;
-        }
+        for (RequiredItems requiredItem : requiredItems)
+            totalItemAmount += requiredItem.getAmount(itemCounts);
 
         return totalItemAmount;
     }
 
     @Override
     public void onComplete(SuperiorPlayer superiorPlayer) {
-        clearData(superiorPlayer);
-        getProgress(superiorPlayer);
-        ItemsTracker itemsTracker = get(superiorPlayer);
+        Player player = superiorPlayer.asPlayer();
+        ItemsTracker itemsTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
-        if (itemsTracker == null)
-            return;
+        if (player != null && itemsTracker != null) {
+            // The inventory is about to be modified, therefore the counts must be accurate.
+            countItems(itemsTracker, player.getInventory());
 
-        Player player = superiorPlayer.asPlayer();
-        assert player != null;
+            // Completion is only granted on fresh counts, so this can only happen if another plugin rewarded
+            // the mission directly. The items that are present are still taken.
+            if (!hasRequiredItems(itemsTracker.itemCounts)) {
+                plugin.getLogger().info(ChatColor.RED + "Player " + player.getName() + " completed " + getName() +
+                        " without having all the required items.");
+            }
 
-        removeItems(player.getInventory(), itemsTracker.getItems().toArray(new ItemStack[0]));
+            removeItems(player.getInventory(), getItemsToRemove(itemsTracker.itemCounts));
+        }
 
         onCompleteFail(superiorPlayer);
     }
@@ -178,58 +155,256 @@ public final class ItemsMissions extends Mission<ItemsMissions.ItemsTracker> imp
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onItemPickup(PlayerPickupItemEvent e) {
+    public void onItemPickup(EntityPickupItemEvent e) {
+        if (!(e.getEntity() instanceof Player))
+            return;
+
+        // The stack of the item is already set to the amount that fits in the inventory.
         ItemStack itemStack = e.getItem().getItemStack();
-        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(e.getPlayer());
 
-        if (!isMissionItem(itemStack) || !superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+        if (!isMissionItem(itemStack))
             return;
 
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
-            if (canComplete(superiorPlayer))
-                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
-        }), 2L);
+        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer((Player) e.getEntity());
+        ItemsTracker itemsTracker = get(superiorPlayer);
+
+        // Pickups are applied to the counts directly, so they do not need a recount of the inventory.
+        if (itemsTracker != null)
+            trackPickup(itemsTracker, itemStack, itemStack.getAmount());
+
+        scheduleCompletionCheck(superiorPlayer);
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClick(InventoryClickEvent e) {
-        if (!(e.getWhoClicked() instanceof Player) || e.getClickedInventory() == null ||
-                e.getClickedInventory().getType() != InventoryType.CHEST || e.getClick() != ClickType.SHIFT_LEFT)
+        if (!(e.getWhoClicked() instanceof Player))
             return;
 
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer((Player) e.getWhoClicked());
 
+        invalidateInventory(superiorPlayer);
+
+        if (e.getClickedInventory() == null || e.getClickedInventory().getType() != InventoryType.CHEST ||
+                e.getClick() != ClickType.SHIFT_LEFT)
+            return;
+
         if (!isMissionItem(e.getCurrentItem()) || !superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
-            if (canComplete(superiorPlayer))
-                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
-        }), 2L);
+        scheduleCompletionCheck(superiorPlayer);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent e) {
+        invalidateInventory(e.getWhoClicked());
     }
 
-    private Map<ItemStack, Integer> countItems(Inventory inventory) {
-        Map<ItemStack, Integer> countedItems = new HashMap<>();
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDrop(PlayerDropItemEvent e) {
+        invalidateInventory(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsume(PlayerItemConsumeEvent e) {
+        invalidateInventory(e.getPlayer());
+    }
 
-        Arrays.stream(inventory.getContents()).filter(Objects::nonNull).forEach(itemStack -> {
-            ItemStack key = itemStack.clone();
-            key.setAmount(1);
-            countedItems.put(key, countedItems.getOrDefault(key, 0) + itemStack.getAmount());
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        invalidateInventory(e.getPlayer());
+    }
+
+    private void scheduleCompletionCheck(SuperiorPlayer superiorPlayer) {
+        pendingCompletionChecks.add(superiorPlayer);
+
+        if (completionChecksTask == null)
+            completionChecksTask = Bukkit.getScheduler().runTaskLater(plugin, this::runCompletionChecks, completionCheckInterval);
+    }
+
+    private void runCompletionChecks() {
+        completionChecksTask = null;
+
+        for (SuperiorPlayer superiorPlayer : pendingCompletionChecks) {
+            if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+                continue;
+
+            // The inventory is counted on the main thread, and the async check only reads that snapshot.
+            superiorPlayer.runIfOnline(player -> {
+                ItemsTracker itemsTracker = getOrCreate(superiorPlayer, s -> createTracker());
+
+                if (itemsTracker == null)
+                    return;
+
+                refreshItemCounts(itemsTracker, player.getInventory());
+
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                    if (canComplete(superiorPlayer))
+                        Bukkit.getScheduler().runTask(plugin, () -> rewardIfCompleted(superiorPlayer));
+                });
+            });
+        }
+
+        pendingCompletionChecks.clear();
+    }
+
+    /**
+     * Reward the player after counting their inventory again, so the reward never relies on cached counts.
+     */
+    private void rewardIfCompleted(SuperiorPlayer superiorPlayer) {
+        superiorPlayer.runIfOnline(player -> {
+            ItemsTracker itemsTracker = get(superiorPlayer);
+
+            if (itemsTracker == null)
+                return;
+
+            countItems(itemsTracker, player.getInventory());
+
+            if (hasRequiredItems(itemsTracker.itemCounts))
+                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
         });
+    }
+
+    private boolean hasRequiredItems(int[] itemCounts) {
+        for (RequiredItems requiredItem : requiredItems) {
+            if (requiredItem.getAmount(itemCounts) < requiredItem.amount)
+                return false;
+        }
 
-        return countedItems;
+        return true;
     }
 
-    private boolean isMissionItem(ItemStack itemStack) {
-        if (itemStack == null)
+    private void invalidateInventory(HumanEntity humanEntity) {
+        if (humanEntity instanceof Player)
+            invalidateInventory(SuperiorSkyblockAPI.getPlayer((Player) humanEntity));
+    }
+
+    private void invalidateInventory(SuperiorPlayer superiorPlayer) {
+        ItemsTracker itemsTracker = get(superiorPlayer);
+        if (itemsTracker != null)
+            itemsTracker.invalidate();
+    }
+
+    /**
+     * Get the amounts of the tracked items in the player's inventory.
+     * The inventory is recounted only if it was modified, or if the counts are older than the cache duration;
+     * the latter catches changes made without any events, such as commands or other plugins.
+     * Cached counts that meet the requirements are always recounted, so completion never relies on them.
+     * Live inventories are only read on the main thread; other threads get the last counted snapshot.
+     */
+    private int[] getItemCounts(SuperiorPlayer superiorPlayer) {
+        Player player = superiorPlayer.asPlayer();
+
+        if (player == null)
+            return null;
+
+        ItemsTracker itemsTracker = getOrCreate(superiorPlayer, s -> createTracker());
+
+        if (itemsTracker == null)
+            return null;
+
+        if (Bukkit.isPrimaryThread() && !refreshItemCounts(itemsTracker, player.getInventory()) &&
+                hasRequiredItems(itemsTracker.itemCounts))
+            countItems(itemsTracker, player.getInventory());
+
+        return itemsTracker.itemCounts;
+    }
+
+    private boolean refreshItemCounts(ItemsTracker itemsTracker, Inventory inventory) {
+        if (!itemsTracker.dirty && System.currentTimeMillis() - itemsTracker.lastCountTime <= inventoryCacheDuration)
             return false;
 
-        for (List<String> requiredItem : requiredItems.keySet()) {
-            if (requiredItem.contains("ALL") || requiredItem.contains("all") || requiredItem.contains(itemStack.getType().name()))
-                return true;
+        countItems(itemsTracker, inventory);
+        return true;
+    }
+
+    private void trackPickup(ItemsTracker itemsTracker, ItemStack itemStack, int amount) {
+        int[] itemIndexes = trackedItemsByType.get(itemStack.getType());
+
+        if (amount <= 0 || itemIndexes == null || itemsTracker.dirty)
+            return;
+
+        for (int itemIndex : itemIndexes) {
+            if (itemStack.isSimilar(trackedItems.get(itemIndex))) {
+                int[] itemCounts = itemsTracker.itemCounts.clone();
+                itemCounts[itemIndex] += amount;
+                itemsTracker.itemCounts = itemCounts;
+                break;
+            }
         }
+    }
+
+    private void countItems(ItemsTracker itemsTracker, Inventory inventory) {
+        int[] itemCounts = new int[trackedItems.size()];
 
-        return false;
+        for (ItemStack itemStack : inventory.getContents()) {
+            if (itemStack == null)
+                continue;
+
+            int[] itemIndexes = trackedItemsByType.get(itemStack.getType());
+
+            if (itemIndexes == null)
+                continue;
+
+            for (int itemIndex : itemIndexes) {
+                if (itemStack.isSimilar(trackedItems.get(itemIndex))) {
+                    itemCounts[itemIndex] += itemStack.getAmount();
+                    break;
+                }
+            }
+        }
+
+        itemsTracker.dirty = false;
+        itemsTracker.lastCountTime = System.currentTimeMillis();
+        itemsTracker.itemCounts = itemCounts;
+    }
+
+    private ItemStack[] getItemsToRemove(int[] itemCounts) {
+        List<ItemStack> itemsToRemove = new ArrayList<>();
+
+        for (RequiredItems requiredItem : requiredItems) {
+            int itemAmount = 0;
+            for (int itemIndex : requiredItem.itemIndexes) {
+                int currentItemAmount = Math.min(itemCounts[itemIndex], requiredItem.amount - itemAmount);
+
+                if (currentItemAmount <= 0)
+                    continue;
+
+                ItemStack itemStack = trackedItems.get(itemIndex).clone();
+                itemStack.setAmount(currentItemAmount);
+                itemsToRemove.add(itemStack);
+
+                itemAmount += currentItemAmount;
+
+                if (itemAmount >= requiredItem.amount)
+                    break;
+            }
+        }
+
+        return itemsToRemove.toArray(new ItemStack[0]);
+    }
+
+    private int getTrackedItemIndex(ItemStack itemStack) {
+        int itemIndex = trackedItems.indexOf(itemStack);
+
+        if (itemIndex == -1) {
+            itemIndex = trackedItems.size();
+            trackedItems.add(itemStack);
+
+            int[] itemIndexes = trackedItemsByType.getOrDefault(itemStack.getType(), new int[0]);
+            itemIndexes = Arrays.copyOf(itemIndexes, itemIndexes.length + 1);
+            itemIndexes[itemIndexes.length - 1] = itemIndex;
+            trackedItemsByType.put(itemStack.getType(), itemIndexes);
+        }
+
+        return itemIndex;
+    }
+
+    private ItemsTracker createTracker() {
+        return new ItemsTracker(trackedItems.size());
+    }
+
+    private boolean isMissionItem(ItemStack itemStack) {
+        return itemStack != null && (hasAllRequirement || trackedItemsByType.containsKey(itemStack.getType()));
     }
 
     private static void removeItems(PlayerInventory inventory, ItemStack... itemStacks) {
@@ -255,16 +430,40 @@ public final class ItemsMissions extends Mission<ItemsMissions.ItemsTracker> imp
         }
     }
 
+    private static final class RequiredItems {
+
+        private final int[] itemIndexes;
+        private final int amount;
+
+        RequiredItems(List<Integer> itemIndexes, int amount) {
+            this.itemIndexes = itemIndexes.stream().mapToInt(Integer::intValue).toArray();
+            this.amount = amount;
+        }
+
+        int getAmount(int[] itemCounts) {
+            int itemAmount = 0;
+
+            for (int itemIndex : itemIndexes)
+                itemAmount += itemCounts[itemIndex];
+
+            return Math.min(itemAmount, amount);
+        }
+
+    }
+
     public static class ItemsTracker {
 
-        private final Set<ItemStack> itemsTracker = new HashSet<>();
+        // Replaced as a whole by every count and never modified afterwards, so it can be read from any thread.
+        private volatile int[] itemCounts;
+        private volatile boolean dirty = true;
+        private long lastCountTime = 0;
 
-        void track(ItemStack itemStack) {
-            itemsTracker.add(itemStack.clone());
+        ItemsTracker(int itemsAmount) {
+            this.itemCounts = new int[itemsAmount];
         }
 
-        Set<ItemStack> getItems() {
-            return itemsTracker;
+        void invalidate() {
+            dirty = true;
         }
 
     }
@@ -15,13 +15,18 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.projectiles.ProjectileSource;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +46,11 @@ public final class KillsMissions extends Mission<KillsMissions.KillsTracker> imp
     private JavaPlugin plugin;
     private final Map<List<String>, Integer> requiredEntities = new HashMap<>();
     private final Map<EntityType, String> entityBossBar = new HashMap<>();
+    private final BitSet missionEntityTypes = new BitSet();
+    private EntityAmountProvider entityAmountProvider = EntityAmountProvider.SINGLE;
+    // Kills are folded per player and entity type, and flushed once on the next tick.
+    private final Map<SuperiorPlayer, Map<EntityType, int[]>> pendingKills = new HashMap<>();
+    private BukkitTask killsFlushTask = null;
     private boolean resetAfterFinish;
 
     @Override
@@ -56,17 +66,28 @@ public final class KillsMissions extends Mission<KillsMissions.KillsTracker> imp
             String bossBar = section.getString("required-entities." + key + ".boss-bar", "?");
 
             requiredEntities.put(entityTypes, requiredAmount);
+
+            if (entityTypes.contains("ALL") || entityTypes.contains("all"))
+                missionEntityTypes.set(0, EntityType.values().length);
+
             for (String type : entityTypes) {
                 try {
                     EntityType entityType = EntityType.valueOf(type);
                     entityBossBar.put(entityType, bossBar);
+                    missionEntityTypes.set(entityType.ordinal());
                 } catch (Exception ignored) {}
             }
         }
 
+        missionEntityTypes.clear(EntityType.ARMOR_STAND.ordinal());
+
         resetAfterFinish = section.getBoolean("reset-after-finish", false);
 
         Bukkit.getPluginManager().registerEvents(this, plugin);
+
+        // Plugins may not be enabled yet when missions are loaded.
+        resolveEntityAmountProvider();
+        Bukkit.getScheduler().runTask(plugin, this::resolveEntityAmountProvider);
     }
 
     @Override
@@ -184,7 +205,11 @@ public final class KillsMissions extends Mission<KillsMissions.KillsTracker> imp
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityKill(EntityDeathEvent e) {
-        if (!isMissionEntity(e.getEntity()))
+        if (!missionEntityTypes.get(e.getEntityType().ordinal()))
+            return;
+
+        // Entities that were not recently damaged by a player cannot have a player killer.
+        if (e.getEntity().getKiller() == null)
             return;
 
         EntityDamageEvent damageCause = e.getEntity().getLastDamageCause();
@@ -209,45 +234,66 @@ public final class KillsMissions extends Mission<KillsMissions.KillsTracker> imp
 
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(damager);
 
-        if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
-            return;
+        pendingKills.computeIfAbsent(superiorPlayer, s -> new EnumMap<>(EntityType.class))
+                .computeIfAbsent(e.getEntityType(), t -> new int[1])[0] += getEntityAmount(e.getEntity());
 
-        KillsTracker killsTracker = getOrCreate(superiorPlayer, s -> new KillsTracker());
+        if (killsFlushTask == null)
+            killsFlushTask = Bukkit.getScheduler().runTask(plugin, this::flushKills);
+    }
 
-        if(killsTracker == null)
-            return;
+    private void flushKills() {
+        killsFlushTask = null;
 
-        killsTracker.track(e.getEntityType().name(), getEntityAmount(e.getEntity()));
-        if (entityBossBar.containsKey(e.getEntityType()))
-            sendBossBar(superiorPlayer, entityBossBar.get(e.getEntityType()), getProgress(superiorPlayer, e.getEntityType()), getRequired(e.getEntityType().name()), getProgress(superiorPlayer));
+        for (Map.Entry<SuperiorPlayer, Map<EntityType, int[]>> entry : pendingKills.entrySet()) {
+            SuperiorPlayer superiorPlayer = entry.getKey();
 
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
-            if (canComplete(superiorPlayer))
-                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
-        }), 2L);
-    }
+            if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+                continue;
 
-    private int getEntityAmount(LivingEntity entity) {
-        if (Bukkit.getPluginManager().isPluginEnabled("WildStacker")) {
-            try {
-                return com.bgsoftware.wildstacker.api.WildStackerAPI.getEntityAmount(entity);
-            } catch (Exception ignored) {
+            KillsTracker killsTracker = getOrCreate(superiorPlayer, s -> new KillsTracker());
+
+            if (killsTracker == null)
+                continue;
+
+            EntityType bossBarType = null;
+
+            for (Map.Entry<EntityType, int[]> kills : entry.getValue().entrySet()) {
+                killsTracker.track(kills.getKey().name(), kills.getValue()[0]);
+                if (entityBossBar.containsKey(kills.getKey()))
+                    bossBarType = kills.getKey();
             }
+
+            if (bossBarType != null)
+                sendBossBar(superiorPlayer, entityBossBar.get(bossBarType), getProgress(superiorPlayer, bossBarType), getRequired(bossBarType.name()), getProgress(superiorPlayer));
+
+            Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
+                if (canComplete(superiorPlayer))
+                    SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
+            }), 2L);
         }
 
-        return 1;
+        pendingKills.clear();
     }
 
-    private boolean isMissionEntity(Entity entity) {
-        if (entity == null || entity instanceof ArmorStand)
-            return false;
+    @EventHandler
+    public void onPluginEnable(PluginEnableEvent e) {
+        if (e.getPlugin().getName().equals("WildStacker"))
+            resolveEntityAmountProvider();
+    }
 
-        for (List<String> requiredEntity : requiredEntities.keySet()) {
-            if (requiredEntity.contains("ALL") || requiredEntity.contains("all") || requiredEntity.contains(entity.getType().name()))
-                return true;
-        }
+    @EventHandler
+    public void onPluginDisable(PluginDisableEvent e) {
+        if (e.getPlugin().getName().equals("WildStacker"))
+            entityAmountProvider = EntityAmountProvider.SINGLE;
+    }
+
+    private void resolveEntityAmountProvider() {
+        entityAmountProvider = Bukkit.getPluginManager().isPluginEnabled("WildStacker") ?
+                new WildStackerAmountProvider() : EntityAmountProvider.SINGLE;
+    }
 
-        return false;
+    private int getEntityAmount(LivingEntity entity) {
+        return entityAmountProvider.getEntityAmount(entity);
     }
 
     private String parsePlaceholders(KillsTracker killsTracker, String line) {
@@ -274,6 +320,28 @@ public final class KillsMissions extends Mission<KillsMissions.KillsTracker> imp
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
+    private interface EntityAmountProvider {
+
+        EntityAmountProvider SINGLE = entity -> 1;
+
+        int getEntityAmount(LivingEntity entity);
+
+    }
+
+    private static final class WildStackerAmountProvider implements EntityAmountProvider {
+
+        @Override
+        public int getEntityAmount(LivingEntity entity) {
+            // Failures of WildStacker, including mismatching API versions, must not lose the kill.
+            try {
+                return com.bgsoftware.wildstacker.api.WildStackerAPI.getEntityAmount(entity);
+            } catch (Exception | LinkageError ignored) {
+                return 1;
+            }
+        }
+
+    }
+
     public static class KillsTracker {
 
         private final Map<String, Integer> killsTracker = new HashMap<>();
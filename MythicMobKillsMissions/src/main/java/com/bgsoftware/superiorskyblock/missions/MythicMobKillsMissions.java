@@ -7,6 +7,7 @@ import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
 import io.lumine.mythic.api.mobs.MythicMob;
 import io.lumine.mythic.bukkit.events.MythicMobDeathEvent;
+import io.lumine.mythic.bukkit.events.MythicReloadedEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.ConfigurationSection;
@@ -31,10 +32,15 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
     private JavaPlugin plugin;
-    private final Map<List<String>, Integer> requiredEntities = new HashMap<>();
-    private final Map<String, String> entityBossBar = new HashMap<>();
+    private final List<RequiredMobs> requiredEntities = new ArrayList<>();
+    private boolean hasAllRequirement;
     private boolean resetAfterFinish;
 
+    // Internal mob names are interned into ids; mobs are resolved by identity until MythicMobs reloads.
+    private final Map<String, MobType> mobTypes = new HashMap<>();
+    private final List<MobType> mobTypesById = new ArrayList<>();
+    private final Map<MythicMob, MobType> resolvedMobs = new IdentityHashMap<>();
+
     @Override
     public void load(JavaPlugin plugin, ConfigurationSection section) throws MissionLoadException {
         this.plugin = plugin;
@@ -47,11 +53,24 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
             int requiredAmount = section.getInt("required-entities." + key + ".amount");
             String bossBar = section.getString("required-entities." + key + ".boss-bar", "?");
 
-            requiredEntities.put(entityTypes, requiredAmount);
+            RequiredMobs requiredMobs = new RequiredMobs(requiredEntities.size(), entityTypes, requiredAmount);
+            requiredEntities.add(requiredMobs);
+
+            if (requiredMobs.all)
+                hasAllRequirement = true;
+
             for (String type : entityTypes) {
-                try {
-                    entityBossBar.put(type, bossBar);
-                } catch (Exception ignored) {}
+                if (type.equals("ALL") || type.equals("all"))
+                    continue;
+
+                MobType mobType = internMobType(type);
+                mobType.bossBar = bossBar;
+                if (!requiredMobs.all && mobType.requirement == null)
+                    mobType.requirement = requiredMobs;
+                if (!requiredMobs.all && !mobType.hasSlot(requiredMobs.slot)) {
+                    mobType.slots = Arrays.copyOf(mobType.slots, mobType.slots.length + 1);
+                    mobType.slots[mobType.slots.length - 1] = requiredMobs.slot;
+                }
             }
         }
 
@@ -70,9 +89,9 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
         int requiredEntities = 0;
         int kills = 0;
 
-        for (Map.Entry<List<String>, Integer> entry : this.requiredEntities.entrySet()) {
-            requiredEntities += entry.getValue();
-            kills += Math.min(killsTracker.getKills(entry.getKey()), entry.getValue());
+        for (RequiredMobs requiredMobs : this.requiredEntities) {
+            requiredEntities += requiredMobs.amount;
+            kills += Math.min(killsTracker.getKills(requiredMobs), requiredMobs.amount);
         }
 
         return (double) kills / requiredEntities;
@@ -87,32 +106,27 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
 
         int kills = 0;
 
-        for (Map.Entry<List<String>, Integer> entry : this.requiredEntities.entrySet())
-            kills += Math.min(killsTracker.getKills(entry.getKey()), entry.getValue());
+        for (RequiredMobs requiredMobs : this.requiredEntities)
+            kills += Math.min(killsTracker.getKills(requiredMobs), requiredMobs.amount);
 
         return kills;
     }
 
     public int getRequired(String type) {
-        for (Map.Entry<List<String>, Integer> entry : requiredEntities.entrySet()) {
-            if (entry.getKey().contains(type))
-                return entry.getValue();
-        }
-
-        return 0;
+        MobType mobType = mobTypes.get(type);
+        return mobType == null || mobType.requirement == null ? 0 : mobType.requirement.amount;
     }
 
     public int getProgress(SuperiorPlayer superiorPlayer, MythicMob mob) {
+        return getProgress(superiorPlayer, resolveMobType(mob));
+    }
+
+    private int getProgress(SuperiorPlayer superiorPlayer, MobType mobType) {
         KillsTracker killsTracker = get(superiorPlayer);
-        if (killsTracker == null)
+        if (killsTracker == null || mobType == null || mobType.requirement == null)
             return 0;
 
-        for (Map.Entry<List<String>, Integer> entry : this.requiredEntities.entrySet()) {
-            if (entry.getKey().contains(mob.getInternalName()))
-                return killsTracker.getKills(entry.getKey());
-        }
-
-        return 0;
+        return killsTracker.getKills(mobType.requirement);
     }
 
     @Override
@@ -130,8 +144,10 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
     public void saveProgress(ConfigurationSection section) {
         for (Map.Entry<SuperiorPlayer, KillsTracker> entry : entrySet()) {
             String uuid = entry.getKey().getUniqueId().toString();
-            for (Map.Entry<String, Integer> brokenEntry : entry.getValue().killsTracker.entrySet()) {
-                section.set(uuid + "." + brokenEntry.getKey(), brokenEntry.getValue());
+            int[] mobKills = entry.getValue().mobKills;
+            for (int mobId = 0; mobId < mobKills.length; mobId++) {
+                if (mobKills[mobId] > 0)
+                    section.set(uuid + "." + mobTypesById.get(mobId).name, mobKills[mobId]);
             }
         }
     }
@@ -139,21 +155,21 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
     @Override
     public void loadProgress(ConfigurationSection section) {
         for (String uuid : section.getKeys(false)) {
-            KillsTracker killsTracker = new KillsTracker();
+            KillsTracker killsTracker = createTracker();
             UUID playerUUID = UUID.fromString(uuid);
             SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(playerUUID);
 
             insertData(superiorPlayer, killsTracker);
 
             for (String key : section.getConfigurationSection(uuid).getKeys(false)) {
-                killsTracker.killsTracker.put(key, section.getInt(uuid + "." + key));
+                killsTracker.track(internMobType(key), section.getInt(uuid + "." + key));
             }
         }
     }
 
     @Override
     public void formatItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
-        KillsTracker killsTracker = getOrCreate(superiorPlayer, s -> new KillsTracker());
+        KillsTracker killsTracker = getOrCreate(superiorPlayer, s -> createTracker());
 
         if(killsTracker == null)
             return;
@@ -175,22 +191,22 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityKill(MythicMobDeathEvent e) {
-        if (!isMissionEntity(e.getMobType().getInternalName()) || !(e.getKiller() instanceof Player damager))
+        MobType mobType = resolveMobType(e.getMobType());
+        if (mobType == null || !(e.getKiller() instanceof Player damager))
             return;
 
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(damager);
         if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
-        KillsTracker killsTracker = getOrCreate(superiorPlayer, s -> new KillsTracker());
+        KillsTracker killsTracker = getOrCreate(superiorPlayer, s -> createTracker());
         if (killsTracker == null)
             return;
 
-        String mobName = e.getMobType().getInternalName();
-
-        killsTracker.track(mobName, 1);
-        if (entityBossBar.containsKey(mobName)) {
-            sendBossBar(superiorPlayer, entityBossBar.get(mobName), getProgress(superiorPlayer, e.getMobType()), getRequired(mobName), getProgress(superiorPlayer));
+        killsTracker.track(mobType, 1);
+        if (mobType.bossBar != null) {
+            sendBossBar(superiorPlayer, mobType.bossBar, getProgress(superiorPlayer, mobType),
+                    mobType.requirement == null ? 0 : mobType.requirement.amount, getProgress(superiorPlayer));
         }
 
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
@@ -199,58 +215,138 @@ public final class MythicMobKillsMissions extends Mission<MythicMobKillsMissions
         }), 2L);
     }
 
-    private boolean isMissionEntity(String mob) {
-        for (List<String> requiredEntity : requiredEntities.keySet()) {
-            if (requiredEntity.contains("ALL") || requiredEntity.contains("all") || requiredEntity.contains(mob))
-                return true;
+    @EventHandler
+    public void onMythicMobsReload(MythicReloadedEvent e) {
+        resolvedMobs.clear();
+    }
+
+    /**
+     * Get the interned type of a mob, or null if its kills are not part of this mission.
+     */
+    private MobType resolveMobType(MythicMob mob) {
+        MobType mobType = resolvedMobs.get(mob);
+
+        if (mobType == null) {
+            String mobName = mob.getInternalName();
+            mobType = mobTypes.get(mobName);
+
+            if (mobType == null)
+                mobType = hasAllRequirement ? internMobType(mobName) : MobType.NONE;
+
+            resolvedMobs.put(mob, mobType);
+        }
+
+        return mobType == MobType.NONE ? null : mobType;
+    }
+
+    private MobType internMobType(String mobName) {
+        return mobTypes.computeIfAbsent(mobName, name -> {
+            MobType mobType = new MobType(mobTypesById.size(), name);
+            mobTypesById.add(mobType);
+            return mobType;
+        });
+    }
+
+    private KillsTracker createTracker() {
+        return new KillsTracker(requiredEntities.size());
+    }
+
+    private RequiredMobs findRequirement(String mobName) {
+        for (RequiredMobs requiredMobs : requiredEntities) {
+            if (requiredMobs.mobs.contains(mobName))
+                return requiredMobs;
         }
 
-        return false;
+        return null;
     }
 
     private String parsePlaceholders(KillsTracker killsTracker, String line) {
         Matcher matcher = percentagePattern.matcher(line);
 
         if (matcher.matches()) {
-            String requiredEntity = matcher.group(2);
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredEntities.entrySet().stream().filter(e -> e.getKey().contains(requiredEntity)).findAny();
-            if (entry.isPresent()) {
+            RequiredMobs requiredMobs = findRequirement(matcher.group(2));
+            if (requiredMobs != null) {
                 line = line.replace("{percentage_" + matcher.group(2) + "}",
-                        "" + (killsTracker.getKills(entry.get().getKey()) * 100) / entry.get().getValue());
+                        "" + (killsTracker.getKills(requiredMobs) * 100) / requiredMobs.amount);
             }
         }
 
         if ((matcher = valuePattern.matcher(line)).matches()) {
-            String requiredEntity = matcher.group(2);
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredEntities.entrySet().stream().filter(e -> e.getKey().contains(requiredEntity)).findFirst();
-            if (entry.isPresent()) {
+            RequiredMobs requiredMobs = findRequirement(matcher.group(2));
+            if (requiredMobs != null) {
                 line = line.replace("{value_" + matcher.group(2) + "}",
-                        "" + killsTracker.getKills(entry.get().getKey()));
+                        "" + killsTracker.getKills(requiredMobs));
             }
         }
 
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
-    public static class KillsTracker {
+    private static final class RequiredMobs {
 
-        private final Map<String, Integer> killsTracker = new HashMap<>();
+        private final int slot;
+        private final List<String> mobs;
+        private final int amount;
+        private final boolean all;
 
-        void track(String entity, int amount) {
-            int newAmount = amount + killsTracker.getOrDefault(entity, 0);
-            killsTracker.put(entity, newAmount);
+        RequiredMobs(int slot, List<String> mobs, int amount) {
+            this.slot = slot;
+            this.mobs = mobs;
+            this.amount = amount;
+            this.all = mobs.contains("ALL") || mobs.contains("all");
         }
 
-        int getKills(List<String> entities) {
-            int amount = 0;
-            boolean all = entities.contains("ALL") || entities.contains("all");
+    }
+
+    private static final class MobType {
+
+        private static final MobType NONE = new MobType(-1, "");
 
-            for (String entity : killsTracker.keySet()) {
-                if (all || entities.contains(entity))
-                    amount += killsTracker.get(entity);
+        private final int id;
+        private final String name;
+        private int[] slots = new int[0];
+        private RequiredMobs requirement = null;
+        private String bossBar = null;
+
+        MobType(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        boolean hasSlot(int slot) {
+            for (int requiredSlot : slots) {
+                if (requiredSlot == slot)
+                    return true;
             }
 
-            return amount;
+            return false;
+        }
+
+    }
+
+    public static class KillsTracker {
+
+        private int[] mobKills = new int[0];
+        private final int[] groupKills;
+        private int totalKills = 0;
+
+        KillsTracker(int groupsAmount) {
+            this.groupKills = new int[groupsAmount];
+        }
+
+        void track(MobType mobType, int amount) {
+            if (mobType.id >= mobKills.length)
+                mobKills = Arrays.copyOf(mobKills, mobType.id + 1);
+
+            mobKills[mobType.id] += amount;
+            totalKills += amount;
+
+            for (int slot : mobType.slots)
+                groupKills[slot] += amount;
+        }
+
+        int getKills(RequiredMobs requiredMobs) {
+            return requiredMobs.all ? totalKills : groupKills[requiredMobs.slot];
         }
 
     }
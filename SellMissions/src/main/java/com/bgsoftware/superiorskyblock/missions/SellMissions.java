@@ -5,21 +5,22 @@ import com.bgsoftware.superiorskyblock.api.SuperiorSkyblockAPI;
 import com.bgsoftware.superiorskyblock.api.missions.Mission;
 import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
+import com.bgsoftware.superiorskyblock.missions.shop.ShopTransactionDispatcher;
 import lv.side.sidecrops.events.CropHarvesterEvent;
 import lv.side.sidecrops.managers.CropManager;
 import lv.side.sidecrops.objects.CropType;
-import net.brcdev.shopgui.event.ShopPostTransactionEvent;
-import net.brcdev.shopgui.shop.ShopManager;
-import net.brcdev.shopgui.shop.ShopTransactionResult;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginEnableEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.regex.Matcher;
@@ -33,10 +34,30 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
     private static final Pattern percentagePattern = Pattern.compile("(.*)\\{percentage_(.+?)}(.*)"),
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
-    private final Map<List<ItemStack>, Integer> itemsToSell = new HashMap<>();
-    private final Map<List<String>, Integer> customItemsToSell = new HashMap<>();
+    private static final Material[] MATERIALS = Material.values();
+
+    private final List<SellRequirement> itemsToSell = new ArrayList<>();
+    private final List<SellRequirement> customItemsToSell = new ArrayList<>();
+    private final Set<Material> itemsToSellTypes = EnumSet.noneOf(Material.class);
     private final Map<Material, String> itemsBossBar = new HashMap<>();
     private final Map<String, String> customItemsBossBar = new HashMap<>();
+    private final Set<String> customItemNames = new HashSet<>();
+
+    // Lower-cased produce display name -> "cropId-tier", built lazily from the SideCrops CropManager.
+    private final Map<String, String> customCropsByName = new HashMap<>();
+    private Map<?, CropType> indexedCropTypes = null;
+    private long indexedCropTypesTime = 0;
+    private long customCropsRefreshInterval;
+
+    // Custom items are counted by interned ids instead of their names.
+    private final Map<String, Integer> customItemIds = new HashMap<>();
+    private final List<String> customItemKeys = new ArrayList<>();
+
+    // Scyther harvests are folded per player and produce, and flushed every few ticks.
+    private final Map<String, ProduceType> produceTypes = new HashMap<>();
+    private final Map<SuperiorPlayer, Map<ProduceType, int[]>> pendingHarvests = new HashMap<>();
+    private BukkitTask harvestsFlushTask = null;
+    private long harvestsFlushInterval;
 
     private JavaPlugin plugin;
 
@@ -51,7 +72,8 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
             List<String> itemTypes = section.getStringList("sell-items." + key + ".types");
             int amount = section.getInt("sell-items." + key + ".amount", 1);
 
-            List<ItemStack> itemsToSell = new ArrayList<>();
+            List<Material> itemsToSell = new ArrayList<>();
+            List<Integer> itemKeys = new ArrayList<>();
             List<String> customItemsToSell = new ArrayList<>();
 
             for(String itemType : itemTypes) {
@@ -76,25 +98,46 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
                         throw new MissionLoadException("Invalid sell item " + itemType + ".");
                     }
 
-                    itemsToSell.add(new ItemStack(material, 1, data));
+                    itemsToSell.add(material);
+                    itemKeys.add(getItemKey(material, data));
                 } else {
                     customItemsToSell.add(itemType);
                 }
             }
 
-            this.itemsToSell.put(itemsToSell, amount);
-            this.customItemsToSell.put(customItemsToSell, amount);
+            if (!itemKeys.isEmpty())
+                this.itemsToSell.add(new SellRequirement(itemKeys, amount));
+
+            if (!customItemsToSell.isEmpty()) {
+                List<Integer> customIds = new ArrayList<>();
+                for (String customItem : customItemsToSell)
+                    customIds.add(internCustomItem(customItem));
+                this.customItemsToSell.add(new SellRequirement(customIds, amount));
+            }
+
+            itemsToSellTypes.addAll(itemsToSell);
+
             String bossBar = section.getString("sell-items." + key + ".boss-bar", "?");
-            for (ItemStack toSell : itemsToSell) {
-                itemsBossBar.put(toSell.getType(), bossBar);
+            for (Material toSell : itemsToSell) {
+                itemsBossBar.put(toSell, bossBar);
             }
             for (String toSell : customItemsToSell) {
                 customItemsBossBar.put(toSell, bossBar);
+                customItemNames.add(toSell.toLowerCase());
             }
         }
 
+        harvestsFlushInterval = Math.max(1, section.getLong("scyther-flush-interval", 1));
+        customCropsRefreshInterval = section.getLong("custom-crops-refresh-interval", 30) * 1000;
+
         Bukkit.getPluginManager().registerEvents(this, plugin);
 
+        Set<Material> shopMaterials = EnumSet.noneOf(Material.class);
+        shopMaterials.addAll(itemsToSellTypes);
+        if (!customItemsToSell.isEmpty())
+            shopMaterials.add(Material.PHANTOM_MEMBRANE);
+        ShopTransactionDispatcher.registerSellHandler(plugin, this, shopMaterials, this::onSellItem);
+
         setClearMethod(sellTracker -> sellTracker.soldItems.clear());
     }
 
@@ -108,17 +151,13 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         int requiredItems = 0;
         int interactions = 0;
 
-        for (Map.Entry<List<ItemStack>, Integer> entry : this.itemsToSell.entrySet()) {
-            if (entry.getKey().isEmpty())
-                continue;
-            requiredItems += entry.getValue();
-            interactions += Math.min(sellTracker.getSold(entry.getKey()), entry.getValue());
+        for (SellRequirement requirement : this.itemsToSell) {
+            requiredItems += requirement.amount;
+            interactions += Math.min(sellTracker.getSold(requirement.keys), requirement.amount);
         }
-        for (Map.Entry<List<String>, Integer> entry : this.customItemsToSell.entrySet()) {
-            if (entry.getKey().isEmpty())
-                continue;
-            requiredItems += entry.getValue();
-            interactions += Math.min(sellTracker.getCustomSold(entry.getKey()), entry.getValue());
+        for (SellRequirement requirement : this.customItemsToSell) {
+            requiredItems += requirement.amount;
+            interactions += Math.min(sellTracker.getCustomSold(requirement.keys), requirement.amount);
         }
 
         return (double) interactions / requiredItems;
@@ -133,55 +172,44 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
 
         int interactions = 0;
 
-        for (Map.Entry<List<ItemStack>, Integer> entry : this.itemsToSell.entrySet()) {
-            if (entry.getKey().isEmpty())
-                continue;
-            interactions += Math.min(sellTracker.getSold(entry.getKey()), entry.getValue());
-        }
+        for (SellRequirement requirement : this.itemsToSell)
+            interactions += Math.min(sellTracker.getSold(requirement.keys), requirement.amount);
 
-        for (Map.Entry<List<String>, Integer> entry : this.customItemsToSell.entrySet()) {
-            if (entry.getKey().isEmpty())
-                continue;
-            interactions += Math.min(sellTracker.getCustomSold(entry.getKey()), entry.getValue());
-        }
+        for (SellRequirement requirement : this.customItemsToSell)
+            interactions += Math.min(sellTracker.getCustomSold(requirement.keys), requirement.amount);
 
         return interactions;
     }
 
     public int getRequired(ItemStack itemStack) {
-        ItemStack keyItem = itemStack.clone();
-        keyItem.setAmount(1);
-
-        for (Map.Entry<List<ItemStack>, Integer> entry : this.itemsToSell.entrySet()) {
-            if (entry.getKey().contains(keyItem))
-                return entry.getValue();
-        }
+        return getRequired(getItemKey(itemStack));
+    }
 
-        return 0;
+    private int getRequired(int itemKey) {
+        SellRequirement requirement = findRequirement(itemsToSell, itemKey);
+        return requirement == null ? 0 : requirement.amount;
     }
 
     public int getRequired(String item) {
-        for (Map.Entry<List<String>, Integer> entry : this.customItemsToSell.entrySet()) {
-            if (entry.getKey().contains(item))
-                return entry.getValue();
-        }
-
-        return 0;
+        Integer customItemId = customItemIds.get(item);
+        SellRequirement requirement = customItemId == null ? null : findRequirement(customItemsToSell, customItemId);
+        return requirement == null ? 0 : requirement.amount;
     }
 
     public int getProgress(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
+        return getProgress(superiorPlayer, getItemKey(itemStack));
+    }
+
+    private int getProgress(SuperiorPlayer superiorPlayer, int itemKey) {
         SellTracker sellTracker = get(superiorPlayer);
         if (sellTracker == null)
             return 0;
 
-        ItemStack keyItem = itemStack.clone();
-        keyItem.setAmount(1);
         int progress = 0;
 
-        for (Map.Entry<List<ItemStack>, Integer> entry : this.itemsToSell.entrySet()) {
-            if (!entry.getKey().contains(keyItem))
-                continue;
-            progress += sellTracker.getSold(entry.getKey());
+        for (SellRequirement requirement : this.itemsToSell) {
+            if (requirement.contains(itemKey))
+                progress += sellTracker.getSold(requirement.keys);
         }
 
         return progress;
@@ -189,15 +217,15 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
 
     public int getProgress(SuperiorPlayer superiorPlayer, String item) {
         SellTracker sellTracker = get(superiorPlayer);
-        if (sellTracker == null)
+        Integer customItemId = customItemIds.get(item);
+        if (sellTracker == null || customItemId == null)
             return 0;
 
         int progress = 0;
 
-        for (Map.Entry<List<String>, Integer> entry : this.customItemsToSell.entrySet()) {
-            if (!entry.getKey().contains(item))
-                continue;
-            progress += sellTracker.getCustomSold(entry.getKey());
+        for (SellRequirement requirement : this.customItemsToSell) {
+            if (requirement.contains(customItemId))
+                progress += sellTracker.getCustomSold(requirement.keys);
         }
 
         return progress;
@@ -218,14 +246,14 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         for (Map.Entry<SuperiorPlayer, SellTracker> entry : entrySet()) {
             String uuid = entry.getKey().getUniqueId().toString();
             int index = 0;
-            for (Map.Entry<ItemStack, Integer> craftedEntry : entry.getValue().soldItems.entrySet()) {
-                section.set(uuid + "." + index + ".item", craftedEntry.getKey());
-                section.set(uuid + "." + index + ".amount", craftedEntry.getValue());
+            for (Map.Entry<Integer, Integer> soldEntry : entry.getValue().soldItems.entrySet()) {
+                section.set(uuid + "." + index + ".type", serializeItemKey(soldEntry.getKey()));
+                section.set(uuid + "." + index + ".amount", soldEntry.getValue());
                 index++;
             }
-            for (Map.Entry<String, Integer> craftedEntry : entry.getValue().soldCustomItems.entrySet()) {
-                section.set(uuid + "." + index + ".custom-item", craftedEntry.getKey());
-                section.set(uuid + "." + index + ".amount", craftedEntry.getValue());
+            for (Map.Entry<Integer, Integer> soldEntry : entry.getValue().soldCustomItems.entrySet()) {
+                section.set(uuid + "." + index + ".custom-item", customItemKeys.get(soldEntry.getKey()));
+                section.set(uuid + "." + index + ".amount", soldEntry.getValue());
                 index++;
             }
         }
@@ -244,14 +272,19 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
             insertData(superiorPlayer, sellTracker);
 
             for (String key : section.getConfigurationSection(uuid).getKeys(false)) {
+                int amount = section.getInt(uuid + "." + key + ".amount");
                 if (section.contains(uuid + "." + key + ".custom-item")) {
                     String item = section.getString(uuid + "." + key + ".custom-item");
-                    int amount = section.getInt(uuid + "." + key + ".amount");
-                    sellTracker.soldCustomItems.put(item, amount);
+                    sellTracker.trackCustomItem(internCustomItem(item), amount);
+                } else if (section.contains(uuid + "." + key + ".type")) {
+                    Integer itemKey = deserializeItemKey(section.getString(uuid + "." + key + ".type"));
+                    if (itemKey != null)
+                        sellTracker.trackItem(itemKey, amount);
                 } else {
+                    // Data saved before sold items were keyed by type was stored as serialized items.
                     ItemStack itemStack = section.getItemStack(uuid + "." + key + ".item");
-                    int amount = section.getInt(uuid + "." + key + ".amount");
-                    sellTracker.soldItems.put(itemStack, amount);
+                    if (itemStack != null && !itemStack.hasItemMeta())
+                        sellTracker.trackItem(getItemKey(itemStack), amount);
                 }
             }
         }
@@ -279,58 +312,24 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         itemStack.setItemMeta(itemMeta);
     }
 
-    @EventHandler
-    public void onSellItem(ShopPostTransactionEvent event) {
-        if (event.getResult().getResult() != ShopTransactionResult.ShopTransactionResultType.SUCCESS)
-            return;
-        if (event.getResult().getShopAction() == ShopManager.ShopAction.BUY)
-            return;
-
-        ItemStack resultItem = event.getResult().getShopItem().getItem();
-        resultItem.setAmount(event.getResult().getAmount());
-
-        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(event.getResult().getPlayer());
+    private void onSellItem(Player player, ItemStack resultItem) {
+        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(player);
         if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
         if (resultItem.getType() == Material.PHANTOM_MEMBRANE) {
-            for (CropType cropType : CropManager.get().getCropTypes().values()) {
-                for (Map.Entry<Integer, ItemStack> entry : cropType.getProduce().entrySet()) {
-                    if (entry.getValue().getItemMeta().getDisplayName().equalsIgnoreCase(resultItem.getItemMeta().getDisplayName())) {
-                        String itemName = cropType.getId() + "-" + entry.getKey();
-
-                        boolean contains = false;
-                        outer:
-                        for (List<String> stacks : customItemsToSell.keySet()) {
-                            for (String stack : stacks) {
-                                if (stack.equalsIgnoreCase(itemName)) {
-                                    contains = true;
-                                    break outer;
-                                }
-                            }
-                        }
-                        if (!contains)
-                            return;
-
-                        trackItem(superiorPlayer, itemName, resultItem.getAmount());
-                        return;
-                    }
-                }
-            }
-            return;
-        } else {
-            boolean contains = false;
-            outer:
-            for (List<ItemStack> stacks : itemsToSell.keySet()) {
-                for (ItemStack stack : stacks) {
-                    if (stack.getType() == resultItem.getType()) {
-                        contains = true;
-                        break outer;
-                    }
-                }
-            }
-            if (!contains)
+            ItemMeta resultMeta = resultItem.getItemMeta();
+            if (resultMeta == null || !resultMeta.hasDisplayName())
                 return;
+
+            String itemName = getCustomCropsIndex().get(resultMeta.getDisplayName().toLowerCase());
+            if (itemName != null)
+                trackItem(superiorPlayer, itemName, resultItem.getAmount());
+
+            return;
+        } else if (!itemsToSellTypes.contains(resultItem.getType()) || resultItem.hasItemMeta()) {
+            // Requirements are plain items, so renamed or custom items do not count towards them.
+            return;
         }
 
         trackItem(superiorPlayer, resultItem);
@@ -339,16 +338,89 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
     @EventHandler(ignoreCancelled = true)
     public void onScytherAutoSell(CropHarvesterEvent event) {
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(event.getPlayer());
-        if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
-            return;
+        ProduceType produceType = produceTypes.computeIfAbsent(event.getProduce(), ProduceType::new);
 
-        Material mat = Material.getMaterial(event.getProduce());
-        if (mat != null) {
-            trackItem(superiorPlayer, new ItemStack(mat, event.getAmount()));
-            return;
+        pendingHarvests.computeIfAbsent(superiorPlayer, s -> new LinkedHashMap<>())
+                .computeIfAbsent(produceType, p -> new int[1])[0] += event.getAmount();
+
+        if (harvestsFlushTask == null)
+            harvestsFlushTask = Bukkit.getScheduler().runTaskLater(plugin, this::flushHarvests, harvestsFlushInterval);
+    }
+
+    private void flushHarvests() {
+        harvestsFlushTask = null;
+
+        for (Map.Entry<SuperiorPlayer, Map<ProduceType, int[]>> entry : pendingHarvests.entrySet()) {
+            SuperiorPlayer superiorPlayer = entry.getKey();
+            if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+                continue;
+
+            SellTracker sellTracker = getOrCreate(superiorPlayer, s -> new SellTracker());
+            if (sellTracker == null)
+                continue;
+
+            ProduceType bossBarProduce = null;
+
+            for (Map.Entry<ProduceType, int[]> harvest : entry.getValue().entrySet()) {
+                ProduceType produceType = harvest.getKey();
+
+                if (produceType.material != null) {
+                    sellTracker.trackItem(produceType.itemKey, harvest.getValue()[0]);
+                    if (itemsBossBar.containsKey(produceType.material))
+                        bossBarProduce = produceType;
+                } else {
+                    sellTracker.trackCustomItem(produceType.itemKey, harvest.getValue()[0]);
+                    if (customItemsBossBar.containsKey(produceType.name))
+                        bossBarProduce = produceType;
+                }
+            }
+
+            if (bossBarProduce != null && bossBarProduce.material != null) {
+                sendBossBar(superiorPlayer, itemsBossBar.get(bossBarProduce.material), getProgress(superiorPlayer, bossBarProduce.itemKey),
+                        getRequired(bossBarProduce.itemKey), getProgress(superiorPlayer));
+            } else if (bossBarProduce != null) {
+                sendBossBar(superiorPlayer, customItemsBossBar.get(bossBarProduce.name), getProgress(superiorPlayer, bossBarProduce.name),
+                        getRequired(bossBarProduce.name), getProgress(superiorPlayer));
+            }
+
+            scheduleCompletionCheck(superiorPlayer);
+        }
+
+        pendingHarvests.clear();
+    }
+
+    @EventHandler
+    public void onSideCropsEnable(PluginEnableEvent event) {
+        if (event.getPlugin().getName().equals("SideCrops"))
+            indexedCropTypes = null;
+    }
+
+    private Map<String, String> getCustomCropsIndex() {
+        Map<?, CropType> cropTypes = CropManager.get().getCropTypes();
+        long currentTime = System.currentTimeMillis();
+
+        // SideCrops replaces or refills its crop types on reload, which invalidates the index.
+        // Refills cannot be detected cheaply, so the index is also rebuilt every custom-crops-refresh-interval.
+        if (cropTypes != indexedCropTypes || currentTime - indexedCropTypesTime > customCropsRefreshInterval) {
+            customCropsByName.clear();
+
+            for (CropType cropType : cropTypes.values()) {
+                for (Map.Entry<Integer, ItemStack> entry : cropType.getProduce().entrySet()) {
+                    String itemName = cropType.getId() + "-" + entry.getKey();
+                    if (!customItemNames.contains(itemName.toLowerCase()))
+                        continue;
+
+                    ItemMeta produceMeta = entry.getValue().getItemMeta();
+                    if (produceMeta != null && produceMeta.hasDisplayName())
+                        customCropsByName.putIfAbsent(produceMeta.getDisplayName().toLowerCase(), itemName);
+                }
+            }
+
+            indexedCropTypes = cropTypes;
+            indexedCropTypesTime = currentTime;
         }
 
-        trackItem(superiorPlayer, event.getProduce(), event.getAmount());
+        return customCropsByName;
     }
 
     private void trackItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
@@ -356,14 +428,11 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         if (sellTracker == null)
             return;
 
-        sellTracker.trackItem(itemStack);
+        sellTracker.trackItem(getItemKey(itemStack), itemStack.getAmount());
         if (itemsBossBar.containsKey(itemStack.getType()))
             sendBossBar(superiorPlayer, itemsBossBar.get(itemStack.getType()), getProgress(superiorPlayer, itemStack), getRequired(itemStack), getProgress(superiorPlayer));
 
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
-            if (canComplete(superiorPlayer))
-                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
-        }), 2L);
+        scheduleCompletionCheck(superiorPlayer);
     }
 
     private void trackItem(SuperiorPlayer superiorPlayer, String item, int amount) {
@@ -371,10 +440,14 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         if (sellTracker == null)
             return;
 
-        sellTracker.trackItem(item, amount);
+        sellTracker.trackCustomItem(internCustomItem(item), amount);
         if (customItemsBossBar.containsKey(item))
             sendBossBar(superiorPlayer, customItemsBossBar.get(item), getProgress(superiorPlayer, item), getRequired(item), getProgress(superiorPlayer));
 
+        scheduleCompletionCheck(superiorPlayer);
+    }
+
+    private void scheduleCompletionCheck(SuperiorPlayer superiorPlayer) {
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
             if (canComplete(superiorPlayer))
                 SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
@@ -387,23 +460,21 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         if (matcher.matches()) {
             try {
                 if (matcher.group(2).contains("-")) {
-                    String requiredItem = matcher.group(2);
-                    Optional<Map.Entry<List<String>, Integer>> entry = customItemsToSell.entrySet().stream()
-                            .filter(e -> e.getKey().contains(requiredItem)).findAny();
+                    Integer customItemId = customItemIds.get(matcher.group(2));
+                    SellRequirement requirement = customItemId == null ? null : findRequirement(customItemsToSell, customItemId);
 
-                    if (entry.isPresent()) {
+                    if (requirement != null) {
                         line = line.replace("{percentage_" + matcher.group(2) + "}",
-                                "" + (sellTracker.getCustomSold(entry.get().getKey()) * 100) / entry.get().getValue());
+                                "" + (sellTracker.getCustomSold(requirement.keys) * 100) / requirement.amount);
                     }
                 } else {
                     String requiredItem = matcher.group(2).toUpperCase();
-                    ItemStack itemStack = new ItemStack(Material.valueOf(requiredItem));
-                    Optional<Map.Entry<List<ItemStack>, Integer>> entry = itemsToSell.entrySet().stream()
-                            .filter(e -> e.getKey().contains(itemStack)).findAny();
+                    SellRequirement requirement = findRequirement(itemsToSell,
+                            getItemKey(Material.valueOf(requiredItem), (short) 0));
 
-                    if (entry.isPresent()) {
+                    if (requirement != null) {
                         line = line.replace("{percentage_" + matcher.group(2) + "}",
-                                "" + (sellTracker.getSold(entry.get().getKey()) * 100) / entry.get().getValue());
+                                "" + (sellTracker.getSold(requirement.keys) * 100) / requirement.amount);
                     }
                 }
             } catch (Exception ignored) {
@@ -413,23 +484,21 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         if ((matcher = valuePattern.matcher(line)).matches()) {
             try {
                 if (matcher.group(2).contains("-")) {
-                    String requiredBlock = matcher.group(2);
-                    Optional<Map.Entry<List<String>, Integer>> entry = customItemsToSell.entrySet().stream()
-                            .filter(e -> e.getKey().contains(requiredBlock)).findAny();
+                    Integer customItemId = customItemIds.get(matcher.group(2));
+                    SellRequirement requirement = customItemId == null ? null : findRequirement(customItemsToSell, customItemId);
 
-                    if (entry.isPresent()) {
+                    if (requirement != null) {
                         line = line.replace("{value_" + matcher.group(2) + "}",
-                                "" + (sellTracker.getCustomSold(entry.get().getKey())));
+                                "" + (sellTracker.getCustomSold(requirement.keys)));
                     }
                 } else {
                     String requiredBlock = matcher.group(2).toUpperCase();
-                    ItemStack itemStack = new ItemStack(Material.valueOf(requiredBlock));
-                    Optional<Map.Entry<List<ItemStack>, Integer>> entry = itemsToSell.entrySet().stream()
-                            .filter(e -> e.getKey().contains(itemStack)).findAny();
+                    SellRequirement requirement = findRequirement(itemsToSell,
+                            getItemKey(Material.valueOf(requiredBlock), (short) 0));
 
-                    if (entry.isPresent()) {
+                    if (requirement != null) {
                         line = line.replace("{value_" + matcher.group(2) + "}",
-                                "" + (sellTracker.getSold(entry.get().getKey())));
+                                "" + (sellTracker.getSold(requirement.keys)));
                     }
                 }
             } catch (Exception ignored) {
@@ -439,36 +508,118 @@ public final class SellMissions extends Mission<SellMissions.SellTracker> implem
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
+    private int internCustomItem(String item) {
+        Integer customItemId = customItemIds.get(item);
+
+        if (customItemId == null) {
+            customItemId = customItemKeys.size();
+            customItemIds.put(item, customItemId);
+            customItemKeys.add(item);
+        }
+
+        return customItemId;
+    }
+
+    private static SellRequirement findRequirement(List<SellRequirement> requirements, int key) {
+        for (SellRequirement requirement : requirements) {
+            if (requirement.contains(key))
+                return requirement;
+        }
+
+        return null;
+    }
+
+    private static int getItemKey(ItemStack itemStack) {
+        return getItemKey(itemStack.getType(), itemStack.getDurability());
+    }
+
+    private static int getItemKey(Material material, short data) {
+        return (material.ordinal() << 16) | (data & 0xFFFF);
+    }
+
+    private static String serializeItemKey(int itemKey) {
+        // Material ordinals are not stable between server versions, therefore names are saved instead.
+        return MATERIALS[itemKey >>> 16].name() + ":" + (itemKey & 0xFFFF);
+    }
+
+    private static Integer deserializeItemKey(String serialized) {
+        String[] sections = serialized.split(":");
+        Material material = Material.getMaterial(sections[0]);
+
+        if (material == null)
+            return null;
+
+        try {
+            return getItemKey(material, sections.length == 2 ? Short.parseShort(sections[1]) : 0);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private final class ProduceType {
+
+        private final String name;
+        private final Material material;
+        private final int itemKey;
+
+        ProduceType(String name) {
+            this.name = name;
+            this.material = Material.getMaterial(name);
+            this.itemKey = this.material != null ? getItemKey(this.material, (short) 0) : internCustomItem(name);
+        }
+
+    }
+
+    private static final class SellRequirement {
+
+        private final int[] keys;
+        private final int amount;
+
+        SellRequirement(List<Integer> keys, int amount) {
+            this.keys = keys.stream().mapToInt(Integer::intValue).distinct().toArray();
+            this.amount = amount;
+        }
+
+        boolean contains(int key) {
+            for (int requiredKey : keys) {
+                if (requiredKey == key)
+                    return true;
+            }
+
+            return false;
+        }
+
+    }
+
     public static class SellTracker {
 
-        private final Map<ItemStack, Integer> soldItems = new HashMap<>();
-        private final Map<String, Integer> soldCustomItems = new HashMap<>();
+        // Plain items are keyed by packed (material ordinal, data), custom items by their interned ids.
+        private final Map<Integer, Integer> soldItems = new HashMap<>();
+        private final Map<Integer, Integer> soldCustomItems = new HashMap<>();
 
-        void trackItem(ItemStack itemStack) {
-            ItemStack keyItem = itemStack.clone();
-            keyItem.setAmount(1);
-            soldItems.put(keyItem, soldItems.getOrDefault(keyItem, 0) + itemStack.getAmount());
+        void trackItem(int itemKey, int amount) {
+            soldItems.merge(itemKey, amount, Integer::sum);
         }
 
-        void trackItem(String item, int amount) {
-            soldCustomItems.put(item, soldCustomItems.getOrDefault(item, 0) + amount);
+        void trackCustomItem(int customItemId, int amount) {
+            soldCustomItems.merge(customItemId, amount, Integer::sum);
         }
 
-        int getSold(List<ItemStack> itemStacks) {
+        int getSold(int[] itemKeys) {
             int sold = 0;
 
-            for (ItemStack itemStack : itemStacks) {
-                sold += soldItems.getOrDefault(itemStack, 0);
+            for (int itemKey : itemKeys) {
+                sold += soldItems.getOrDefault(itemKey, 0);
             }
 
             return sold;
         }
 
-        int getCustomSold(List<String> itemStacks) {
+        int getCustomSold(int[] customItemIds) {
             int sold = 0;
 
-            for (String itemStack : itemStacks) {
-                sold += soldCustomItems.getOrDefault(itemStack, 0);
+            for (int customItemId : customItemIds) {
+                sold += soldCustomItems.getOrDefault(customItemId, 0);
             }
 
             return sold;
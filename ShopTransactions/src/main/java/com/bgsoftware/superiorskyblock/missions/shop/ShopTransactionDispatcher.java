@@ -0,0 +1,138 @@
+package com.bgsoftware.superiorskyblock.missions.shop;
+
+import com.bgsoftware.superiorskyblock.api.SuperiorSkyblock;
+import com.bgsoftware.superiorskyblock.api.SuperiorSkyblockAPI;
+import com.bgsoftware.superiorskyblock.api.missions.Mission;
+import net.brcdev.shopgui.event.ShopPostTransactionEvent;
+import net.brcdev.shopgui.shop.ShopManager;
+import net.brcdev.shopgui.shop.ShopTransactionResult;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Listens to ShopGUIPlus transactions once for all the shop missions, and routes every
+ * successful transaction only to the handlers that registered the traded material.
+ *
+ * Every mission jar is loaded by its own class loader and shades its own copy of this class.
+ * The first jar to register a handler registers the listener, and later jars find it by its
+ * class name among the listeners of the event and add their handlers to its routes, which only
+ * use JDK, Bukkit and SuperiorSkyblock types.
+ */
+public final class ShopTransactionDispatcher implements Listener, Supplier<Map<String, Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>>>> {
+
+    private static final SuperiorSkyblock superiorSkyblock = SuperiorSkyblockAPI.getSuperiorSkyblock();
+
+    private static final String BUY_ROUTES = "buy", SELL_ROUTES = "sell";
+
+    private final Map<String, Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>>> routes = new HashMap<>();
+
+    private ShopTransactionDispatcher() {
+        routes.put(BUY_ROUTES, new EnumMap<>(Material.class));
+        routes.put(SELL_ROUTES, new EnumMap<>(Material.class));
+    }
+
+    /**
+     * Register the handler of a mission for bought items of the given materials, replacing the handlers
+     * of a previously loaded mission with the same name.
+     * The handler receives the buyer and the bought item, with its amount set to the bought amount.
+     * The item is shared between all handlers of the transaction and must not be modified.
+     */
+    public static void registerBuyHandler(JavaPlugin plugin, Mission<?> mission, Collection<Material> materials,
+                                          BiConsumer<Player, ItemStack> handler) {
+        register(getRoutes(plugin).get(BUY_ROUTES), mission, materials, handler);
+    }
+
+    /**
+     * Register the handler of a mission for sold items of the given materials, replacing the handlers
+     * of a previously loaded mission with the same name.
+     * The handler receives the seller and the sold item, with its amount set to the sold amount.
+     * The item is shared between all handlers of the transaction and must not be modified.
+     */
+    public static void registerSellHandler(JavaPlugin plugin, Mission<?> mission, Collection<Material> materials,
+                                           BiConsumer<Player, ItemStack> handler) {
+        register(getRoutes(plugin).get(SELL_ROUTES), mission, materials, handler);
+    }
+
+    @Override
+    public Map<String, Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>>> get() {
+        return routes;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onShopTransaction(ShopPostTransactionEvent event) {
+        ShopTransactionResult result = event.getResult();
+
+        if (result.getResult() != ShopTransactionResult.ShopTransactionResultType.SUCCESS)
+            return;
+
+        Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>> handlers =
+                routes.get(result.getShopAction() == ShopManager.ShopAction.BUY ? BUY_ROUTES : SELL_ROUTES);
+
+        if (handlers.isEmpty())
+            return;
+
+        // ShopItem only exposes its material through a copy of the item, so the copy is made once
+        // here and shared by all the handlers.
+        ItemStack shopItem = result.getShopItem().getItem();
+        Map<Mission<?>, BiConsumer<Player, ItemStack>> materialHandlers = handlers.get(shopItem.getType());
+
+        if (materialHandlers == null)
+            return;
+
+        shopItem.setAmount(result.getAmount());
+        Player player = result.getPlayer();
+
+        Iterator<Map.Entry<Mission<?>, BiConsumer<Player, ItemStack>>> iterator = materialHandlers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Mission<?>, BiConsumer<Player, ItemStack>> entry = iterator.next();
+
+            // Missions that were removed by a reload no longer receive transactions.
+            if (superiorSkyblock.getMissions().getMission(entry.getKey().getName()) != entry.getKey()) {
+                iterator.remove();
+                continue;
+            }
+
+            entry.getValue().accept(player, shopItem);
+        }
+
+        if (materialHandlers.isEmpty())
+            handlers.remove(shopItem.getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>>> getRoutes(JavaPlugin plugin) {
+        for (RegisteredListener registeredListener : ShopPostTransactionEvent.getHandlerList().getRegisteredListeners()) {
+            Listener listener = registeredListener.getListener();
+            if (listener.getClass().getName().equals(ShopTransactionDispatcher.class.getName()) && listener instanceof Supplier)
+                return ((Supplier<Map<String, Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>>>>) listener).get();
+        }
+
+        ShopTransactionDispatcher dispatcher = new ShopTransactionDispatcher();
+        Bukkit.getPluginManager().registerEvents(dispatcher, plugin);
+
+        return dispatcher.routes;
+    }
+
+    private static void register(Map<Material, Map<Mission<?>, BiConsumer<Player, ItemStack>>> handlers, Mission<?> mission,
+                                 Collection<Material> materials, BiConsumer<Player, ItemStack> handler) {
+        // A reloaded mission replaces the handlers of its previous instance.
+        for (Map<Mission<?>, BiConsumer<Player, ItemStack>> materialHandlers : handlers.values())
+            materialHandlers.keySet().removeIf(registered -> registered.getName().equals(mission.getName()));
+        handlers.values().removeIf(Map::isEmpty);
+
+        for (Material material : new HashSet<>(materials))
+            handlers.computeIfAbsent(material, m -> new LinkedHashMap<>()).put(mission, handler);
+    }
+
+}
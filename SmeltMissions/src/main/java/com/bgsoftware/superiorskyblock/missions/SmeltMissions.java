@@ -2,6 +2,7 @@ package com.bgsoftware.superiorskyblock.missions;
 
 import com.bgsoftware.superiorskyblock.api.SuperiorSkyblock;
 import com.bgsoftware.superiorskyblock.api.SuperiorSkyblockAPI;
+import com.bgsoftware.superiorskyblock.api.island.Island;
 import com.bgsoftware.superiorskyblock.api.missions.Mission;
 import com.bgsoftware.superiorskyblock.api.missions.MissionLoadException;
 import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
@@ -9,22 +10,22 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.inventory.FurnaceExtractEvent;
+import org.bukkit.event.inventory.FurnaceSmeltEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,11 +35,14 @@ public final class SmeltMissions extends Mission<SmeltMissions.SmeltingTracker>
 
     private static final SuperiorSkyblock superiorSkyblock = SuperiorSkyblockAPI.getSuperiorSkyblock();
 
+    private static final Set<Material> furnaceTypes = EnumSet.of(Material.FURNACE, Material.BLAST_FURNACE, Material.SMOKER);
+
     private static final Pattern percentagePattern = Pattern.compile("(.*)\\{percentage_(.+?)}(.*)"),
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
     private final Map<List<ItemStack>, Integer> itemsToSmelt = new HashMap<>();
     private final Map<Material, String> itemsBossBar = new HashMap<>();
+    private final Set<Material> smeltMaterials = EnumSet.noneOf(Material.class);
 
     private JavaPlugin plugin;
 
@@ -76,6 +80,7 @@ public final class SmeltMissions extends Mission<SmeltMissions.SmeltingTracker>
                 }
 
                 itemsToSmelt.add(new ItemStack(material, 1, data));
+                smeltMaterials.add(material);
             }
 
             this.itemsToSmelt.put(itemsToSmelt, amount);
@@ -223,57 +228,51 @@ public final class SmeltMissions extends Mission<SmeltMissions.SmeltingTracker>
         itemStack.setItemMeta(itemMeta);
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onInventoryClick(InventoryClickEvent e) {
-        if (e.getClickedInventory() == null)
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onFurnaceExtract(FurnaceExtractEvent e) {
+        // Island missions count the smelted items instead, as they are smelted.
+        if (getIslandMission() || e.getItemAmount() <= 0 || !smeltMaterials.contains(e.getItemType()) ||
+                !furnaceTypes.contains(e.getBlock().getType()))
             return;
 
-        switch (e.getClickedInventory().getType()) {
-            case FURNACE, BLAST_FURNACE, SMOKER:
-                break;
-            default:
-                return;
-        }
+        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(e.getPlayer());
 
-        int requiredSlot = 2;
+        if (superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+            trackItem(superiorPlayer, new ItemStack(e.getItemType(), 1), e.getItemAmount());
+    }
 
-        ItemStack resultItem = e.getCurrentItem().clone();
-        resultItem.setAmount(1);
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFurnaceSmelt(FurnaceSmeltEvent e) {
+        ItemStack resultItem = e.getResult();
 
-        boolean contains = false;
-        outer:
-        for (List<ItemStack> stacks : itemsToSmelt.keySet()) {
-            for (ItemStack stack : stacks) {
-                if (stack.getType() == resultItem.getType()) {
-                    contains = true;
-                    break outer;
-                }
-            }
-        }
-        if (!contains)
+        if (!getIslandMission() || resultItem == null || !smeltMaterials.contains(resultItem.getType()) ||
+                !furnaceTypes.contains(e.getBlock().getType()))
             return;
 
-        SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(e.getWhoClicked().getUniqueId());
+        Island island = SuperiorSkyblockAPI.getIslandAt(e.getBlock().getLocation());
 
-        if (e.getRawSlot() == requiredSlot && superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this)) {
-            int amountOfResult = countItems(e.getWhoClicked(), resultItem);
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                int afterTickAmountOfResult = countItems(e.getWhoClicked(), resultItem);
-                resultItem.setAmount(afterTickAmountOfResult - amountOfResult);
-                trackItem(superiorPlayer, resultItem);
-            }, 1L);
-        }
+        if (island == null)
+            return;
+
+        SuperiorPlayer superiorPlayer = island.getOwner();
 
+        if (!superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+            return;
+
+        ItemStack keyItem = resultItem.clone();
+        keyItem.setAmount(1);
+
+        trackItem(superiorPlayer, keyItem, resultItem.getAmount());
     }
 
-    private void trackItem(SuperiorPlayer superiorPlayer, ItemStack itemStack) {
+    private void trackItem(SuperiorPlayer superiorPlayer, ItemStack keyItem, int amount) {
         SmeltingTracker blocksTracker = getOrCreate(superiorPlayer, s -> new SmeltingTracker());
         if (blocksTracker == null)
             return;
 
-        blocksTracker.trackItem(itemStack);
-        if (itemsBossBar.containsKey(itemStack.getType()))
-            sendBossBar(superiorPlayer, itemsBossBar.get(itemStack.getType()), getProgress(superiorPlayer, itemStack), getRequired(itemStack), getProgress(superiorPlayer));
+        blocksTracker.trackItem(keyItem, amount);
+        if (itemsBossBar.containsKey(keyItem.getType()))
+            sendBossBar(superiorPlayer, itemsBossBar.get(keyItem.getType()), getProgress(superiorPlayer, keyItem), getRequired(keyItem), getProgress(superiorPlayer));
 
         Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
             if (canComplete(superiorPlayer))
@@ -281,25 +280,6 @@ public final class SmeltMissions extends Mission<SmeltMissions.SmeltingTracker>
         }), 2L);
     }
 
-    private static int countItems(HumanEntity humanEntity, ItemStack itemStack) {
-        int amount = 0;
-
-        if (itemStack == null)
-            return amount;
-
-        PlayerInventory playerInventory = humanEntity.getInventory();
-
-        for (ItemStack invItem : playerInventory.getContents()) {
-            if (invItem != null && itemStack.isSimilar(invItem))
-                amount += invItem.getAmount();
-        }
-
-        if (humanEntity.getItemOnCursor() != null && itemStack.isSimilar(humanEntity.getItemOnCursor()))
-            amount += humanEntity.getItemOnCursor().getAmount();
-
-        return amount;
-    }
-
     private String parsePlaceholders(SmeltingTracker smeltingTracker, String line) {
         Matcher matcher = percentagePattern.matcher(line);
 
@@ -340,10 +320,8 @@ public final class SmeltMissions extends Mission<SmeltMissions.SmeltingTracker>
 
         private final Map<ItemStack, Integer> smeltItems = new HashMap<>();
 
-        void trackItem(ItemStack itemStack) {
-            ItemStack keyItem = itemStack.clone();
-            keyItem.setAmount(1);
-            smeltItems.put(keyItem, smeltItems.getOrDefault(keyItem, 0) + itemStack.getAmount());
+        void trackItem(ItemStack keyItem, int amount) {
+            smeltItems.merge(keyItem, amount, Integer::sum);
         }
 
         int getSmelts(List<ItemStack> itemStacks) {
@@ -19,12 +19,18 @@ import org.bukkit.event.player.PlayerStatisticIncrementEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,7 +41,16 @@ public final class StatisticsMissions extends Mission<Void> implements Listener
     private static final Pattern percentagePattern = Pattern.compile("(.*)\\{percentage_(.+?)}(.*)"),
             valuePattern = Pattern.compile("(.*)\\{value_(.+?)}(.*)");
 
-    private final Map<List<String>, Integer> requiredStatistics = new HashMap<>();
+    private final List<RequiredStatistics> requiredStatistics = new ArrayList<>();
+    private final Map<String, StatisticDescriptor> statisticDescriptors = new HashMap<>();
+    private final Set<Statistic> missionStatistics = EnumSet.noneOf(Statistic.class);
+    // Requirements made of a single statistic, which can be checked directly against the event's new value.
+    private final Map<Statistic, List<RequiredStatistics>> singleRequirements = new EnumMap<>(Statistic.class);
+
+    // Players waiting for a completion check; drained at most once every completion-check-interval ticks.
+    private final Set<SuperiorPlayer> pendingCompletionChecks = new LinkedHashSet<>();
+    private BukkitTask completionChecksTask = null;
+    private long completionCheckInterval;
 
     private JavaPlugin plugin;
 
@@ -49,9 +64,39 @@ public final class StatisticsMissions extends Mission<Void> implements Listener
         for (String key : section.getConfigurationSection("required-statistics").getKeys(false)) {
             List<String> blocks = section.getStringList("required-statistics." + key + ".statistics");
             int requiredAmount = section.getInt("required-statistics." + key + ".amount");
-            requiredStatistics.put(blocks, requiredAmount);
+            RequiredStatistics requirement = new RequiredStatistics(requiredAmount);
+
+            for (String statistic : blocks) {
+                if (statistic.equals("ALL") || statistic.equals("all")) {
+                    Collections.addAll(missionStatistics, Statistic.values());
+                    continue;
+                }
+
+                StatisticDescriptor descriptor = statisticDescriptors.get(statistic);
+
+                if (descriptor == null) {
+                    descriptor = StatisticDescriptor.compile(statistic, requirement);
+                    if (descriptor == null) {
+                        plugin.getLogger().info(ChatColor.RED + "Statistic " + statistic + " is invalid, skipping...");
+                        continue;
+                    }
+                    statisticDescriptors.put(statistic, descriptor);
+                }
+
+                requirement.descriptors.add(descriptor);
+                missionStatistics.add(descriptor.statistic);
+            }
+
+            if (requirement.descriptors.size() == 1) {
+                singleRequirements.computeIfAbsent(requirement.descriptors.get(0).statistic,
+                        statistic -> new ArrayList<>()).add(requirement);
+            }
+
+            requiredStatistics.add(requirement);
         }
 
+        completionCheckInterval = Math.max(1, section.getLong("completion-check-interval", 5));
+
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
@@ -65,25 +110,9 @@ public final class StatisticsMissions extends Mission<Void> implements Listener
         if (player == null)
             return progress;
 
-        for (List<String> requiredStatistic : requiredStatistics.keySet()) {
-            int requiredAmount = requiredStatistics.get(requiredStatistic);
-            int statisticAmount = 0;
-            for (String statistic : requiredStatistic) {
-                int currentStatisticAmount = getStatisticAmount(player, statistic);
-
-                if (currentStatisticAmount == -1)
-                    continue;
-
-                //Making sure to not exceed the required item amount
-                if (statisticAmount + currentStatisticAmount > requiredAmount)
-                    currentStatisticAmount = requiredAmount - statisticAmount;
-
-                //Summing the amount to a global variable
-                statisticAmount += currentStatisticAmount;
-            }
-
-            totalRequiredAmount += requiredAmount;
-            totalItemAmount += statisticAmount;
+        for (RequiredStatistics requiredStatistic : requiredStatistics) {
+            totalRequiredAmount += requiredStatistic.amount;
+            totalItemAmount += requiredStatistic.getAmount(player);
         }
 
         progress = Math.max(progress, (double) totalItemAmount / totalRequiredAmount);
@@ -99,22 +128,8 @@ public final class StatisticsMissions extends Mission<Void> implements Listener
         if (player == null)
             return totalItemAmount;
 
-        for (List<String> requiredStatistic : requiredStatistics.keySet()) {
-            int requiredAmount = requiredStatistics.get(requiredStatistic);
-            int statisticAmount = 0;
-            for (String statistic : requiredStatistic) {
-                int currentItemAmount = getStatisticAmount(player, statistic);
-
-                //Making sure to not exceed the required item amount
-                if (statisticAmount + currentItemAmount > requiredAmount)
-                    currentItemAmount = requiredAmount - statisticAmount;
-
-                //Summing the amount to a global variable
-                statisticAmount += currentItemAmount;
-            }
-
-            totalItemAmount += statisticAmount;
-        }
+        for (RequiredStatistics requiredStatistic : requiredStatistics)
+            totalItemAmount += requiredStatistic.getAmount(player);
 
         return totalItemAmount;
     }
@@ -153,94 +168,172 @@ public final class StatisticsMissions extends Mission<Void> implements Listener
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerStatistic(PlayerStatisticIncrementEvent e) {
+        Statistic statistic = e.getStatistic();
+
+        if (statistic == null || !missionStatistics.contains(statistic) || isBelowRequirement(e))
+            return;
+
         SuperiorPlayer superiorPlayer = SuperiorSkyblockAPI.getPlayer(e.getPlayer());
 
-        if (!isMissionStatistic(e.getStatistic()) || !superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
+        if (pendingCompletionChecks.contains(superiorPlayer) ||
+                !superiorSkyblock.getMissions().canCompleteNoProgress(superiorPlayer, this))
             return;
 
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> superiorPlayer.runIfOnline(player -> {
-            if (canComplete(superiorPlayer))
-                SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
-        }), 2L);
+        pendingCompletionChecks.add(superiorPlayer);
+
+        if (completionChecksTask == null)
+            completionChecksTask = Bukkit.getScheduler().runTaskLater(plugin, this::runCompletionChecks, completionCheckInterval);
     }
 
-    private boolean isMissionStatistic(Statistic statistic) {
-        if (statistic == null)
+    /**
+     * Check whether the new value of the statistic still misses a requirement that is made only of it.
+     * In that case, the mission cannot be completed by this increment.
+     */
+    private boolean isBelowRequirement(PlayerStatisticIncrementEvent e) {
+        List<RequiredStatistics> requirements = singleRequirements.get(e.getStatistic());
+
+        if (requirements == null)
             return false;
 
-        for (List<String> requiredStatistic : requiredStatistics.keySet()) {
-            if (requiredStatistic.contains("ALL") || requiredStatistic.contains("all") || requiredStatistic.contains(statistic.name()))
-                return true;
-            if (statistic.isSubstatistic() && requiredStatistic.stream().anyMatch(line -> line.contains(statistic.name())))
+        for (RequiredStatistics requirement : requirements) {
+            StatisticDescriptor descriptor = requirement.descriptors.get(0);
+            if (descriptor.material == e.getMaterial() && descriptor.entityType == e.getEntityType() &&
+                    e.getNewValue() < requirement.amount)
                 return true;
         }
 
         return false;
     }
 
+    private void runCompletionChecks() {
+        completionChecksTask = null;
+
+        List<SuperiorPlayer> superiorPlayers = new ArrayList<>(pendingCompletionChecks);
+        pendingCompletionChecks.clear();
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            for (SuperiorPlayer superiorPlayer : superiorPlayers) {
+                superiorPlayer.runIfOnline(player -> {
+                    if (canComplete(superiorPlayer))
+                        SuperiorSkyblockAPI.getSuperiorSkyblock().getMissions().rewardMission(this, superiorPlayer, true);
+                });
+            }
+        });
+    }
+
     private String parsePlaceholders(Player player, String line) {
         Matcher matcher = percentagePattern.matcher(line);
 
         if (matcher.matches()) {
-            String requiredStatistic = matcher.group(2).toUpperCase();
-            int value = getStatisticAmount(player, requiredStatistic);
-
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredStatistics.entrySet().stream()
-                    .filter(e -> e.getKey().contains(requiredStatistic)).findAny();
+            StatisticDescriptor descriptor = statisticDescriptors.get(matcher.group(2).toUpperCase());
 
-            if (entry.isPresent()) {
+            if (descriptor != null) {
                 line = line.replace("{percentage_" + matcher.group(2) + "}",
-                        "" + (value * 100) / entry.get().getValue());
+                        "" + (descriptor.getAmount(player) * 100) / descriptor.requirement.amount);
             }
         }
 
         if ((matcher = valuePattern.matcher(line)).matches()) {
-            String requiredStatistic = matcher.group(2).toUpperCase();
-            int value = getStatisticAmount(player, requiredStatistic);
+            StatisticDescriptor descriptor = statisticDescriptors.get(matcher.group(2).toUpperCase());
 
-            Optional<Map.Entry<List<String>, Integer>> entry = requiredStatistics.entrySet().stream()
-                    .filter(e -> e.getKey().contains(requiredStatistic)).findAny();
-
-            if (entry.isPresent()) {
+            if (descriptor != null) {
                 line = line.replace("{value_" + matcher.group(2) + "}",
-                        "" + value);
+                        "" + descriptor.getAmount(player));
             }
         }
 
         return ChatColor.translateAlternateColorCodes('&', line);
     }
 
-    private static int getStatisticAmount(Player player, String statisticsString) {
-        String[] sections = statisticsString.split(":");
-        int currentStatisticAmount = -1;
-
+    private static <T extends Enum<T>> T getEnumSafe(Class<T> clazz, String name) {
         try {
-            Statistic statistic = Statistic.valueOf(sections[0]);
+            return Enum.valueOf(clazz, name);
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
 
-            if (sections.length == 1) {
-                currentStatisticAmount = player.getStatistic(statistic);
-            } else if (sections.length == 2) {
-                Material material = getEnumSafe(Material.class, sections[1]);
-                if (material != null) {
-                    currentStatisticAmount = player.getStatistic(statistic, material);
-                } else {
-                    EntityType entityType = getEnumSafe(EntityType.class, sections[1]);
-                    if (entityType != null)
-                        currentStatisticAmount = player.getStatistic(statistic, entityType);
-                }
+    private static final class RequiredStatistics {
+
+        private final List<StatisticDescriptor> descriptors = new ArrayList<>();
+        private final int amount;
+
+        RequiredStatistics(int amount) {
+            this.amount = amount;
+        }
+
+        int getAmount(Player player) {
+            int statisticAmount = 0;
+
+            for (StatisticDescriptor descriptor : descriptors) {
+                statisticAmount += descriptor.getAmount(player);
+
+                //Making sure to not exceed the required amount
+                if (statisticAmount >= amount)
+                    return amount;
             }
-        } catch (Exception ignored) {
+
+            return statisticAmount;
         }
 
-        return currentStatisticAmount;
     }
 
-    private static <T extends Enum<T>> T getEnumSafe(Class<T> clazz, String name) {
-        try {
-            return Enum.valueOf(clazz, name);
-        } catch (Throwable ex) {
-            return null;
+    private static final class StatisticDescriptor {
+
+        private final Statistic statistic;
+        @Nullable
+        private final Material material;
+        @Nullable
+        private final EntityType entityType;
+        // The first requirement that contains the statistic, used for placeholders.
+        private final RequiredStatistics requirement;
+
+        /**
+         * Compile a configured statistic ("STATISTIC" or "STATISTIC:QUALIFIER"), or return null if it is invalid.
+         */
+        @Nullable
+        static StatisticDescriptor compile(String statisticsString, RequiredStatistics requirement) {
+            String[] sections = statisticsString.split(":");
+
+            Statistic statistic = getEnumSafe(Statistic.class, sections[0]);
+            if (statistic == null || sections.length > 2)
+                return null;
+
+            if (sections.length == 1) {
+                return statistic.getType() != Statistic.Type.UNTYPED ? null :
+                        new StatisticDescriptor(statistic, null, null, requirement);
+            }
+
+            Material material = getEnumSafe(Material.class, sections[1]);
+            if (material != null) {
+                // Statistics of materials that cannot be blocks or items throw on every read.
+                boolean validType = statistic.getType() == Statistic.Type.BLOCK ? material.isBlock() :
+                        statistic.getType() == Statistic.Type.ITEM && material.isItem();
+                return !validType ? null : new StatisticDescriptor(statistic, material, null, requirement);
+            }
+
+            EntityType entityType = getEnumSafe(EntityType.class, sections[1]);
+            return entityType == null || statistic.getType() != Statistic.Type.ENTITY ? null :
+                    new StatisticDescriptor(statistic, null, entityType, requirement);
         }
+
+        StatisticDescriptor(Statistic statistic, @Nullable Material material, @Nullable EntityType entityType,
+                            RequiredStatistics requirement) {
+            this.statistic = statistic;
+            this.material = material;
+            this.entityType = entityType;
+            this.requirement = requirement;
+        }
+
+        int getAmount(Player player) {
+            if (material != null)
+                return player.getStatistic(statistic, material);
+            else if (entityType != null)
+                return player.getStatistic(statistic, entityType);
+            else
+                return player.getStatistic(statistic);
+        }
+
     }
 
 }